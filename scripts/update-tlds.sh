@@ -0,0 +1,33 @@
+#!/bin/sh
+#
+# Used to regenerate src/main/resources/tlds.txt from the IANA root zone list.
+# Internationalised domains (xn--) are left out as the URL scanner only reads a-z.
+# Common words are kept by hand in src/main/resources/tlds-common.txt.
+#
+# Usage: scripts/update-tlds.sh [tlds-alpha-by-domain.txt]
+
+set -e
+
+SOURCE_URL="https://data.iana.org/TLD/tlds-alpha-by-domain.txt"
+TARGET="$(dirname "$0")/../src/main/resources/tlds.txt"
+
+if [ -n "$1" ]; then
+    SOURCE=$(basename "$1")
+    LIST=$(cat "$1")
+else
+    SOURCE="$SOURCE_URL"
+    LIST=$(curl -fsS "$SOURCE_URL")
+fi
+
+VERSION=$(printf '%s\n' "$LIST" | sed -n '1s/^# *//p')
+
+{
+    echo "# Top level domains the URL scanner knows about."
+    echo "# Generated by scripts/update-tlds.sh from $SOURCE, do not edit by hand."
+    echo "# Domains that are also common words are listed in tlds-common.txt."
+    [ -n "$VERSION" ] && echo "# $VERSION"
+    echo
+    printf '%s\n' "$LIST" | grep -v '^#' | tr 'A-Z' 'a-z' | grep -E '^[a-z]+$' | sort -u
+} > "$TARGET"
+
+echo "Wrote $(grep -cv '^#' "$TARGET") lines to $TARGET"
@@ -0,0 +1,77 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.broadcast;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Used to compare rendering a broadcast once with
+ * deserializing it again for every recipient,
+ * which is what sending a legacy string to each player did.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args=RenderedMessageBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderedMessageBenchmark {
+
+    private static final String MESSAGE = "&8[&6Trade&8] &7[&bVIP&7] &fSteve &8» &7selling &e64 diamonds &7for &a$500&7, message me";
+
+    @Param({"10", "100", "1000"})
+    public int recipients;
+
+    @Benchmark
+    public void perRecipient(Blackhole blackhole) {
+        for (int index = 0; index < this.recipients; index++) {
+            blackhole.consume(LegacyComponentSerializer.legacyAmpersand().deserialize(MESSAGE));
+        }
+    }
+
+    @Benchmark
+    public void renderOnce(Blackhole blackhole) {
+        RenderedMessage message = RenderedMessage.fromLegacy(MESSAGE);
+
+        for (int index = 0; index < this.recipients; index++) {
+            Component component = message.getComponent();
+            blackhole.consume(component);
+        }
+    }
+}
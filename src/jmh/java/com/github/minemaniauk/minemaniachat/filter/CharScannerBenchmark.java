@@ -0,0 +1,97 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Used to compare the vector and scalar {@link CharScanner}s.
+ * <p>
+ * The vector scanner is only built with the vector profile, so run with
+ * {@code mvn -Pjmh,vector test-compile exec:exec -Djmh.args=CharScannerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class CharScannerBenchmark {
+
+    @Param({"scalar", "vector"})
+    public String scanner;
+
+    @Param({
+            "gg",
+            "has anyone seen the new update the nether looks so much better now",
+            "Ｈ3ʟʟ0 ᴇᴠᴇʀʏᴏɴᴇ!!! c0me ch3ck 0ut my n3w b4s3, it is r3ally c00l and y0u will l0ve it :)"
+    })
+    public String message;
+
+    private CharScanner charScanner;
+    private char[] source;
+    private char[] table;
+    private byte[] classes;
+    private char[] target;
+    private int[] offsets;
+    private int[] stats;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        this.charScanner = this.scanner.equals("vector")
+                ? (CharScanner) Class.forName(CharScanner.class.getPackageName() + ".VectorCharScanner")
+                .getDeclaredConstructor()
+                .newInstance()
+                : new ScalarCharScanner();
+
+        this.table = new char[Character.MAX_VALUE + 1];
+        this.classes = new byte[Character.MAX_VALUE + 1];
+
+        for (int character = 0; character <= Character.MAX_VALUE; character++) {
+            this.table[character] = MessageNormalizer.normalize((char) character);
+            this.classes[character] = ContentStats.classify((char) character);
+        }
+
+        this.source = this.message.toCharArray();
+        this.target = new char[this.source.length];
+        this.offsets = new int[this.source.length];
+        this.stats = new int[ContentStats.SIZE];
+    }
+
+    @Benchmark
+    public int normalize() {
+        return this.charScanner.normalize(this.source, this.source.length, this.table, this.classes, this.target, this.offsets, this.stats);
+    }
+}
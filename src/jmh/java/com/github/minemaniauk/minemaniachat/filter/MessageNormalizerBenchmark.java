@@ -0,0 +1,73 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Used to compare the {@link MessageNormalizer} with the way the
+ * banned word check used to clean a message, splitting it into one
+ * string per character and matching each against a regular expression.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args=MessageNormalizerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageNormalizerBenchmark {
+
+    @Param({
+            "gg",
+            "has anyone seen the new update? the nether looks so much better now.",
+            "Ｈ3ʟʟ0 ᴇᴠᴇʀʏᴏɴᴇ!!! c0me ch3ck 0ut my n3w b4s3, it is r3ally c00l and y0u will l0ve it :)"
+    })
+    public String message;
+
+    @Benchmark
+    public String splitAndMatch() {
+        return String.join("", Arrays.stream(this.message.toLowerCase().split(""))
+                .filter(character -> character.matches("[a-zA-Z0-9 ]"))
+                .toList()
+        );
+    }
+
+    @Benchmark
+    public int normalizer() {
+        return MessageNormalizer.normalize(this.message).length();
+    }
+}
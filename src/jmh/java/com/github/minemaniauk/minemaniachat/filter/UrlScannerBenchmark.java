@@ -0,0 +1,81 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Used to compare the {@link UrlScanner} with the regular
+ * expression the chat handler used to find links with.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args=UrlScannerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlScannerBenchmark {
+
+    private static final Pattern URL_PATTERN = Pattern.compile(
+            "(?i)\\b(?:https?://|www\\.)?[a-z0-9-]+(?:\\.[a-z0-9-]+)*\\.[a-z]{2,24}(?:/[^\\s]*)?"
+    );
+
+    @Param({
+            "gg that was a close one, well played everyone",
+            "has anyone seen the new update? the nether looks so much better now.",
+            "come play on cheapgems.party for free ranks, we also have www.example.com/shop",
+            "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa.a.a.a.a.a.a.a.a.a.a.a.a.a."
+    })
+    public String message;
+
+    @Setup
+    public void setup() {
+        // Load the top level domain trie before measuring.
+        UrlScanner.contains(this.message);
+    }
+
+    @Benchmark
+    public boolean regex() {
+        return URL_PATTERN.matcher(this.message).find();
+    }
+
+    @Benchmark
+    public boolean scanner() {
+        return UrlScanner.contains(this.message);
+    }
+}
@@ -26,12 +26,45 @@ import com.eduardomcb.discord.webhook.WebhookManager;
 import com.eduardomcb.discord.webhook.models.Embed;
 import com.eduardomcb.discord.webhook.models.Field;
 import com.eduardomcb.discord.webhook.models.Message;
+import com.github.minemaniauk.minemaniachat.broadcast.RenderedMessage;
+import com.github.minemaniauk.minemaniachat.channel.ChannelIndex;
+import com.github.minemaniauk.minemaniachat.channel.ChatChannel;
+import com.github.minemaniauk.minemaniachat.channel.MentionIndex;
+import com.github.minemaniauk.minemaniachat.event.MineManiaChatPostSendEvent;
+import com.github.minemaniauk.minemaniachat.event.MineManiaChatPreSendEvent;
+import com.github.minemaniauk.minemaniachat.filter.BannedWordMatcher;
+import com.github.minemaniauk.minemaniachat.filter.ContentStats;
+import com.github.minemaniauk.minemaniachat.filter.DomainPolicy;
+import com.github.minemaniauk.minemaniachat.filter.FilterResult;
+import com.github.minemaniauk.minemaniachat.filter.MessageNormalizer;
+import com.github.minemaniauk.minemaniachat.filter.VerdictCache;
+import com.github.minemaniauk.minemaniachat.filter.chain.BannedWordFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.CapsFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.ChatDisabledFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.FilterChain;
+import com.github.minemaniauk.minemaniachat.filter.chain.FilterContext;
+import com.github.minemaniauk.minemaniachat.filter.chain.FloodFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.IgnoreFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.LengthFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.LinkFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.MuteFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.PrivateMessageFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.Rejection;
+import com.github.minemaniauk.minemaniachat.filter.chain.SlowModeFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.SpamFilter;
+import com.github.minemaniauk.minemaniachat.filter.chain.ZalgoFilter;
+import com.github.minemaniauk.minemaniachat.message.IgnoreManager;
+import com.github.minemaniauk.minemaniachat.pipeline.ChatMessage;
+import com.github.minemaniauk.minemaniachat.pipeline.ChatPipeline;
+import com.github.minemaniauk.minemaniachat.pipeline.ChatStages;
+import com.github.minemaniauk.minemaniachat.pipeline.LoadShedder;
+import com.github.minemaniauk.minemaniachat.pipeline.PipelineStage;
 import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
 import com.github.smuddgge.squishyconfiguration.interfaces.ConfigurationSection;
+import com.velocitypowered.api.event.EventTask;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.player.PlayerChatEvent;
 import com.velocitypowered.api.proxy.Player;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Duration;
@@ -40,23 +73,50 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Used to handle chat events.
  * When the post-chat event is called it will
  * handle the formatting and filtering.
  */
-public class ChatHandler {
+public class ChatHandler implements ChatStages {
+
+    private static final long LISTENER_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
 
     private final @NotNull Configuration configuration;
-    private final @NotNull Configuration bannedWords;
-    public final Pattern URL_PATTERN = Pattern.compile(
-            "(?i)\\b(?:https?://|www\\.)?[a-z0-9-]+(?:\\.[a-z0-9-]+)*\\.[a-z]{2,24}(?:/[^\\s]*)?"
-    );
 
-    private final HashMap<Player, List<Instant>> playerMessageTimes = new HashMap<>();
-    public final HashMap<Player, Instant> playerCooldowns = new HashMap<>();
+    private final Map<Player, List<Instant>> playerMessageTimes = new ConcurrentHashMap<>();
+    public final Map<Player, Instant> playerCooldowns = new ConcurrentHashMap<>();
+
+    private final @NotNull ChatPipeline pipeline;
+    private final @NotNull VerdictCache verdictCache;
+    private final @NotNull DomainPolicy domainPolicy;
+
+    private final @NotNull FilterChain chatFilters;
+    private final @NotNull FilterChain privateMessageFilters;
+    private final @NotNull FilterChain discordFilters;
+
+    private final boolean spamEnabled;
+    private final int spamStoreLast;
+    private final long spamMinTimeBetweenMessages;
+    private final boolean densityEnabled;
+    private final long densityMaxAmount;
+    private final long densityOverTime;
+
+    private final long preSendTimeoutMillis;
+    private volatile boolean preSendListened = true;
+    private volatile long preSendCheckedNanos;
+    private volatile boolean postSendListened = true;
+    private volatile long postSendCheckedNanos;
+
+    private final boolean mentionsEnabled;
+    private final boolean mentionBareNames;
+    private final @NotNull String mentionHighlight;
+    private final @NotNull String mentionActionBar;
 
     /**
      * Used to create a new instance of the chat handler.
@@ -64,107 +124,340 @@ public class ChatHandler {
      * @param configuration The instance of the configuration
      *                      to format and filter the chat.
      */
-    public ChatHandler(@NotNull Configuration configuration, @NotNull Configuration bannedWords) {
+    public ChatHandler(@NotNull Configuration configuration) {
         this.configuration = configuration;
-        this.bannedWords = bannedWords;
+        this.pipeline = new ChatPipeline(this, configuration);
+        this.verdictCache = new VerdictCache(configuration);
+        this.domainPolicy = new DomainPolicy(configuration);
+
+        // The spam rules are read once here as the handler is replaced on reload.
+        this.spamEnabled = configuration.getBoolean("spam-detection.enabled");
+        this.spamStoreLast = configuration.getInteger("spam-detection.store-last");
+        this.spamMinTimeBetweenMessages = configuration.getLong("spam-detection.min-time-between-messages");
+        this.densityEnabled = configuration.getBoolean("spam-detection.message-density.enabled");
+        this.densityMaxAmount = configuration.getLong("spam-detection.message-density.max-amount");
+        this.densityOverTime = configuration.getLong("spam-detection.message-density.over-time");
+
+        // Chat, private messages and the discord bridge share the filters,
+        // but each chain learns its own order as their messages differ.
+        MuteFilter mute = new MuteFilter(configuration);
+        ChatDisabledFilter chatDisabled = new ChatDisabledFilter(configuration);
+        BannedWordFilter bannedWords = new BannedWordFilter();
+        LinkFilter links = new LinkFilter();
+        LengthFilter length = new LengthFilter(configuration);
+        CapsFilter caps = new CapsFilter(configuration);
+        FloodFilter flood = new FloodFilter(configuration);
+        ZalgoFilter zalgo = new ZalgoFilter(configuration);
+        SpamFilter spam = new SpamFilter(this, configuration);
+
+        this.chatFilters = new FilterChain("chat", configuration,
+                mute, chatDisabled, bannedWords, links, length, caps, flood, zalgo, new SlowModeFilter(), spam);
+        this.privateMessageFilters = new FilterChain("private-message", configuration,
+                mute, new IgnoreFilter(), chatDisabled, bannedWords, links, length, caps, flood, zalgo, new PrivateMessageFilter(), spam);
+        this.discordFilters = configuration.getBoolean("content-filter.apply-to-discord", false)
+                ? new FilterChain("discord", configuration, chatDisabled, bannedWords, links, length, caps, flood, zalgo, new SlowModeFilter())
+                : new FilterChain("discord", configuration, chatDisabled, bannedWords, links, new SlowModeFilter());
+
+        this.preSendTimeoutMillis = Math.max(1, configuration.getLong("events.pre-send-timeout-millis", 50));
+
+        this.mentionsEnabled = configuration.getBoolean("mentions.enabled", true);
+        this.mentionBareNames = configuration.getBoolean("mentions.bare-names", false);
+        this.mentionHighlight = configuration.getString("mentions.highlight", "&e&l");
+        this.mentionActionBar = configuration.getString("mentions.actionbar", "&e{player} &7mentioned you");
     }
 
-        @Subscribe
-        public void onEvent(PlayerChatEvent event) {
-            Player sendingPlayer = event.getPlayer();
+    @Subscribe
+    public EventTask onEvent(PlayerChatEvent event) {
+        event.setResult(PlayerChatEvent.ChatResult.denied());
 
-            event.setResult(PlayerChatEvent.ChatResult.denied());
+        CompletableFuture<Void> future = this.pipeline.submit(
+                new ChatMessage(event.getPlayer(), event.getMessage())
+        );
 
-            // Check if muted via Database
-            if (configuration.getBoolean("database.enabled")){
-                if (MineManiaChat.getInstance().getDbController().isPlayerMuted(sendingPlayer)){
-                    return;
-                }
-            }
+        if (future == null) return null;
+        return EventTask.resumeWhenComplete(future);
+    }
 
-            if (!sendingPlayer.hasPermission("chat.bypass.disable")) {
-                if (!configuration.getBoolean("chat-enabled")){
-                    new User(sendingPlayer).sendMessage("&c&l> &7Chat is currently &cdisabled");
-                    return;
-                }
-            }
+    /**
+     * Used to send a message in a specific channel
+     * without going through the chat event.
+     *
+     * @param sender  The player sending the message.
+     * @param message The message.
+     * @param channel The channel to send the message in.
+     */
+    public void submit(@NotNull Player sender, @NotNull String message, @NotNull ChatChannel channel) {
+        ChatMessage chatMessage = new ChatMessage(sender, message);
+        chatMessage.setChannel(channel);
+        this.pipeline.submit(chatMessage);
+    }
 
-            // Check for banned words.
-            if (!sendingPlayer.hasPermission("chat.bypass.filter.banned-words")) {
-                if (this.containsBannedWords(event.getMessage())) {
-                    new User(sendingPlayer).sendMessage("&c&l> &cSomething went wrong.");
-                    notifyStaff(sendingPlayer.getUsername(), "Sent Message with Banned words!", "Banned word Alert", event.getMessage());
-                    return;
-                }
-            }
+    @Override
+    public boolean admit(@NotNull ChatMessage message) {
+        Player sendingPlayer = message.getSender();
+        ChannelIndex channelIndex = MineManiaChat.getInstance().getChannelIndex();
+
+        if (message.getChannel() == null) {
+            message.setChannel(channelIndex.getActiveChannel(sendingPlayer));
+        }
+
+        if (!channelIndex.canUse(sendingPlayer, Objects.requireNonNull(message.getChannel()))) {
+            new User(sendingPlayer).sendMessage("&c&l> &7You can not talk in the &f" + message.getChannel().getName() + " &7channel");
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean moderate(@NotNull ChatMessage message) {
+        FilterContext context = FilterContext.chat(message.getSender(), message.getMessage());
+        Rejection rejection = this.chatFilters.check(context);
+
+        if (rejection != null) {
+            this.notifyRejected(context, rejection);
+            return false;
+        }
+
+        message.setFilterResult(context.getFilterResult());
+        return true;
+    }
+
+    @Override
+    public void format(@NotNull ChatMessage message) {
+        Player sendingPlayer = message.getSender();
+        String channelPrefix = Objects.requireNonNull(message.getChannel()).getPrefix();
+        String displayMessage = this.getDisplayMessage(message.getFilteredMessage(), sendingPlayer);
+
+        message.setRendered(this.render(channelPrefix, displayMessage, sendingPlayer));
+
+        if (!this.mentionsEnabled) return;
+
+        // Only the mentioned players get a second render with their name highlighted.
+        List<MentionIndex.Mention> mentions = MineManiaChat.getInstance().getMentionIndex().scan(displayMessage, this.mentionBareNames);
+
+        for (MentionIndex.Mention mention : mentions) {
+            Player mentioned = mention.player();
+            if (mentioned == sendingPlayer || message.getVariants().containsKey(mentioned)) continue;
+
+            message.addVariant(mentioned, this.render(
+                    channelPrefix,
+                    this.highlightMentions(displayMessage, mentions, mentioned),
+                    sendingPlayer
+            ));
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> fanOut(@NotNull ChatMessage message) {
+        Player sendingPlayer = message.getSender();
+        ChatChannel channel = Objects.requireNonNull(message.getChannel());
+        RenderedMessage rendered = Objects.requireNonNull(message.getRendered());
+        List<Player> recipients = this.resolveRecipients(channel, sendingPlayer);
+
+        return this.firePreSend(() -> new MineManiaChatPreSendEvent(
+                sendingPlayer, channel, message.getFilteredMessage(), rendered.getComponent(), recipients
+        )).thenCompose(allowed -> !allowed
+                ? CompletableFuture.completedFuture(false)
+                : this.deliver(message, recipients));
+    }
+
+    /**
+     * Used to work out who a message is sent to, leaving out
+     * anyone ignoring the sender. The list is a snapshot, so the
+     * same players are delivered to and given to both events
+     * even if the channel changes while the message is sent.
+     *
+     * @param channel The channel the message was sent in.
+     * @param sender  The player that sent the message.
+     * @return The recipients.
+     */
+    private @NotNull List<Player> resolveRecipients(@NotNull ChatChannel channel, @NotNull Player sender) {
+        Collection<Player> members = MineManiaChat.getInstance().getChannelIndex().getRecipients(channel, sender);
 
-            // Check for URLs
-            if (!sendingPlayer.hasPermission("chat.bypass.filter.url")) {
-                if (URL_PATTERN.matcher(event.getMessage()).find()) {
-                    new User(sendingPlayer).sendMessage("&c&l> &cSomething went wrong.");
-                    notifyStaff(sendingPlayer.getUsername(), "Sent Message with a URL!", "URL Alert", event.getMessage());
-                    return;
-                }
+        // Only check ignores when someone online is actually ignoring the sender.
+        IgnoreManager ignoreManager = MineManiaChat.getInstance().getIgnoreManager();
+        int senderIndex = sender.hasPermission("chat.bypass.ignore") ? -1 : ignoreManager.getIgnoredIndex(sender);
+        if (senderIndex < 0) return List.copyOf(members);
+
+        List<Player> recipients = new ArrayList<>(members.size());
+        for (Player player : members) {
+            if (!ignoreManager.isIgnoring(player, senderIndex)) recipients.add(player);
+        }
+
+        return Collections.unmodifiableList(recipients);
+    }
+
+    private @NotNull CompletableFuture<Boolean> deliver(@NotNull ChatMessage message, @NotNull List<Player> recipients) {
+        Player sendingPlayer = message.getSender();
+        ChatChannel channel = Objects.requireNonNull(message.getChannel());
+        RenderedMessage rendered = Objects.requireNonNull(message.getRendered());
+
+        // The pipeline already keeps each senders messages in order.
+        return MineManiaChat.getInstance().getBroadcastEngine().deliver(
+                rendered,
+                recipients,
+                message.getVariants(),
+                null,
+                null
+        ).thenApply(ignored -> {
+            for (Player mentioned : message.getVariants().keySet()) {
+                if (!recipients.contains(mentioned)) continue;
+                new User(mentioned).sendMessage("::actionbar =" + this.mentionActionBar.replace("{player}", message.getSender().getUsername()) + "::");
             }
 
-            if (configuration.getBoolean("spam-detection.enabled")){
-                if (!sendingPlayer.hasPermission("chat.bypass.filter.spam")) {
-
-                    if (playerCooldowns.containsKey(sendingPlayer) && configuration.getBoolean("spam-detection.message-density.enabled")) {
-                        if (Instant.now().isBefore(playerCooldowns.get(sendingPlayer))){
-                            playerCooldowns.put(sendingPlayer, playerCooldowns.get(sendingPlayer).plusSeconds(configuration.getLong("spam-detection.message-density.violation-cooldown")));
-                            new User(sendingPlayer).sendMessage("&c&l> &cYou are sending messages too fast. Try again soon");
-                            return;
-                        }
-                        else {
-                            playerCooldowns.remove(sendingPlayer);
-                        }
-                    }
+            this.firePostSend(() -> new MineManiaChatPostSendEvent(
+                    sendingPlayer, channel, message.getFilteredMessage(), rendered.getComponent(), recipients
+            ));
+            return true;
+        });
+    }
+
+    /**
+     * Used to let other plugins cancel a message before it is sent.
+     * The event is only built and fired when a listener was seen
+     * recently, otherwise Velocity is asked again every few seconds.
+     * Listeners are given the configured time to answer before the
+     * message is sent anyway, without blocking a pipeline thread.
+     *
+     * @param event Used to create the event if it needs firing.
+     * @return A future that completes with false if a listener denied the message.
+     */
+    private @NotNull CompletableFuture<Boolean> firePreSend(@NotNull Supplier<MineManiaChatPreSendEvent> event) {
+        long now = System.nanoTime();
+        if (!this.preSendListened && now - this.preSendCheckedNanos < LISTENER_CHECK_INTERVAL_NANOS) {
+            return CompletableFuture.completedFuture(true);
+        }
 
-                    var checkResult = CheckSpam(sendingPlayer);
+        CompletableFuture<MineManiaChatPreSendEvent> future = MineManiaChat.getInstance().getProxyServer().getEventManager().fire(event.get());
 
-                    if (checkResult != SpamFilterResults.NONE){
-                        if (checkResult == SpamFilterResults.MESSAGE_DENSITY){
-                            playerCooldowns.put(sendingPlayer, Instant.now().plusSeconds(configuration.getLong("spam-detection.message-density.violation-cooldown")));
-                            notifyStaff(sendingPlayer.getUsername(), "Is spam cool downed!", "Spam Filter Cooldown Alert", event.getMessage());
-                        }
+        // Velocity completes the event straight away when nothing is listening.
+        this.preSendListened = !future.isDone();
+        this.preSendCheckedNanos = now;
 
-                        new User(sendingPlayer).sendMessage("&c&l> &cYou are sending messages too fast");
-                        notifyStaff(sendingPlayer.getUsername(), "Triggered the spam filter!", "Spam Filter Alert", event.getMessage());
-                        return;
+        CompletableFuture<Boolean> allowed = future.completeOnTimeout(null, this.preSendTimeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    if (error != null) {
+                        MineManiaChat.getInstance().getLogger().atError().setCause(error)
+                                .log("A listener failed to handle a chat message, sending it anyway");
+                        return true;
                     }
-                }
 
-                // Update Message time history list
-                updatePlayerMessageTimes(sendingPlayer);
-            }
+                    if (result == null) {
+                        MineManiaChat.getInstance().getLogger().warn("A listener took longer than {}ms to handle a chat message, sending it anyway", this.preSendTimeoutMillis);
+                        return true;
+                    }
 
-            String formattedMessage = this.formatMessage(event.getMessage(), sendingPlayer);
+                    return result.getResult().isAllowed();
+                });
 
-            for (Player p : MineManiaChat.getInstance().getProxyServer().getAllPlayers()) {
-                p.sendMessage(
-                        LegacyComponentSerializer.legacyAmpersand().deserialize(
-                                formattedMessage
-                        )
-                );
-            }
+        if (allowed.isDone()) return allowed;
+
+        // Listeners answer on the event or timeout thread, move the delivery off it.
+        return allowed.thenApplyAsync(result -> result, MineManiaChat.getInstance().getBroadcastEngine().getExecutor());
+    }
+
+    /**
+     * Used to tell other plugins a message was sent.
+     * Like {@link #firePreSend(Supplier)} the event is only built
+     * and fired when a listener was seen recently.
+     *
+     * @param event Used to create the event if it needs firing.
+     */
+    private void firePostSend(@NotNull Supplier<MineManiaChatPostSendEvent> event) {
+        long now = System.nanoTime();
+        if (!this.postSendListened && now - this.postSendCheckedNanos < LISTENER_CHECK_INTERVAL_NANOS) return;
+
+        CompletableFuture<MineManiaChatPostSendEvent> future = MineManiaChat.getInstance().getProxyServer().getEventManager().fire(event.get());
+
+        this.postSendListened = !future.isDone();
+        this.postSendCheckedNanos = now;
+    }
+
+    private @NotNull RenderedMessage render(@NotNull String channelPrefix, @NotNull String displayMessage, @NotNull Player player) {
+        String formattedMessage = this.wrapMessage(displayMessage, player);
+
+        return RenderedMessage.fromLegacy(
+                channelPrefix.isBlank() ? formattedMessage : channelPrefix + " " + formattedMessage
+        );
+    }
+
+    private @NotNull String highlightMentions(@NotNull String displayMessage,
+                                              @NotNull List<MentionIndex.Mention> mentions,
+                                              @NotNull Player mentioned) {
 
-            MineManiaChat.getInstance().getDiscordManager().sendMessageDiscordLogWebhook(sendingPlayer, event.getMessage());
+        StringBuilder builder = new StringBuilder(displayMessage.length() + 16);
+        int last = 0;
 
-            MineManiaChat.getInstance().getLogger().info(
-                    LegacyComponentSerializer.legacyAmpersand().deserialize(
-                            formattedMessage
-                    )
-            );
+        for (MentionIndex.Mention mention : mentions) {
+            if (mention.player() != mentioned) continue;
 
+            builder.append(displayMessage, last, mention.start())
+                    .append(this.mentionHighlight)
+                    .append(displayMessage, mention.start(), mention.end())
+                    .append("&f");
+            last = mention.end();
+        }
+
+        return builder.append(displayMessage, last, displayMessage.length()).toString();
+    }
+
+    @Override
+    public void sinks(@NotNull ChatMessage message) {
+        LoadShedder loadShedder = this.pipeline.getLoadShedder();
+
+        if (loadShedder.shouldLogToConsole()) {
+            MineManiaChat.getInstance().getBroadcastEngine().publish(Objects.requireNonNull(message.getRendered()));
+        }
+
+        ChatChannel channel = Objects.requireNonNull(message.getChannel());
 
+        if (loadShedder.shouldSendWebhookLog()) {
+            String logMessage = channel == MineManiaChat.getInstance().getChannelIndex().getDefaultChannel()
+                    ? message.getMessage()
+                    : "[" + channel.getName() + "] " + message.getMessage();
 
-            if (MineManiaChat.getInstance().getDiscordConfig().getBoolean("enabled")) {
-                MineManiaChat.getInstance().getDiscordManager().forwardInGameMessage(sendingPlayer, event.getMessage());
+            MineManiaChat.getInstance().getDiscordManager().sendMessageDiscordLogWebhook(message.getSender(), logMessage);
+        }
+
+        // Only bridged channels are forwarded, staff chat must never reach the public channel.
+        // The log webhook is for staff so it keeps the original message.
+        if (channel.isBridged() && MineManiaChat.getInstance().getDiscordConfig().getBoolean("enabled")) {
+            if (loadShedder.shouldCoalesceDiscord()) {
+                MineManiaChat.getInstance().getDiscordManager().queueCoalescedMessage(message.getSender(), message.getFilteredMessage());
+            }
+            else {
+                MineManiaChat.getInstance().getDiscordManager().forwardInGameMessage(message.getSender(), message.getFilteredMessage());
             }
         }
+    }
+
+    @Override
+    public void rejected(@NotNull ChatMessage message, @NotNull PipelineStage stage) {
+        if (stage.getName().equals("sinks")) {
+            MineManiaChat.getInstance().getLogger().warn("The chat sink queue is full, skipping logging for a message from " + message.getSender().getUsername());
+            return;
+        }
+
+        new User(message.getSender()).sendMessage("&c&l> &cChat is busy right now. Try again soon");
+    }
 
+    /**
+     * Used to stop the chat pipeline.
+     * Messages that are already queued are still delivered.
+     */
+    public void shutdown() {
+        this.pipeline.shutdown();
+    }
 
+    /**
+     * Used to get the chat pipeline.
+     *
+     * @return The chat pipeline.
+     */
+    public @NotNull ChatPipeline getPipeline() {
+        return this.pipeline;
+    }
 
     /**
      * Used to append chat formatting to the message.
@@ -173,6 +466,34 @@ public class ChatHandler {
      * @param player The instance of the player.
      */
     public String formatMessage(@NotNull String message, @NotNull Player player) {
+        return this.wrapMessage(this.getDisplayMessage(message, player), player);
+    }
+
+    /**
+     * Used to get the message as it will be displayed,
+     * with legacy formatting escaped if the player can not use it.
+     *
+     * @param message The message.
+     * @param player  The player that sent the message.
+     * @return The display message.
+     */
+    private @NotNull String getDisplayMessage(@NotNull String message, @NotNull Player player) {
+        if (!player.hasPermission("chat.format")) {
+            return escapeLegacyFormatting(message);
+        }
+
+        return message;
+    }
+
+    /**
+     * Used to add the players prefix, name and postfix
+     * around a display message.
+     *
+     * @param displayMessage The display message.
+     * @param player         The player that sent the message.
+     * @return The formatted message.
+     */
+    private @NotNull String wrapMessage(@NotNull String displayMessage, @NotNull Player player) {
         ConfigurationSection formatSection = this.configuration.getSection("format");
 
         String prefix = "";
@@ -195,12 +516,6 @@ public class ChatHandler {
             postfix = " " + postfix;
         }
 
-        String displayMessage = message;
-
-        if (!player.hasPermission("chat.format")) {
-            displayMessage = escapeLegacyFormatting(displayMessage);
-        }
-
         return prefix + "&f" + player.getUsername() + " &7: &f" + displayMessage + "&f" + postfix;
     }
 
@@ -215,59 +530,128 @@ public class ChatHandler {
      * @return True if it contains bad words.
      */
     public boolean containsBannedWords(@NotNull String message) {
-        message = String.join("", Arrays.stream(message.toLowerCase().split(""))
-                .filter(character -> character.matches("[a-zA-Z0-9 ]"))
-                .toList()
-        );
-        List<String> bannedPhrases = this.bannedWords.getListString("banned-words", new ArrayList<>());
+        return MineManiaChat.getInstance().getBannedWordList().matches(message);
+    }
 
-        // Loop though each word in the message.
-        for (final String bannedPhrase : bannedPhrases.stream().map(String::toLowerCase).toList()) {
+    /**
+     * Used to check a message for blocked, masked and alert words.
+     * Use {@link FilterResult#mask(String)} on the same message
+     * to hide the masked words.
+     *
+     * @param message The instance of the message.
+     * @return What was found in the message.
+     */
+    public @NotNull FilterResult scanBannedWords(@NotNull String message) {
+        return this.getVerdict(message).filterResult();
+    }
 
-            // Find the position of the phrase in the message.
-            int bannedPhraseIndex = message.indexOf(bannedPhrase);
+    /**
+     * Used to get what the banned word, URL and content filters decide
+     * about a message. Repeated messages are answered from the
+     * verdict cache until the banned words or URL rules change.
+     * The URL rules only change on reload, which replaces this
+     * handler and its cache.
+     *
+     * @param message The instance of the message.
+     * @return The verdict.
+     */
+    public @NotNull VerdictCache.Verdict getVerdict(@NotNull String message) {
+        BannedWordMatcher matcher = MineManiaChat.getInstance().getBannedWordList().getMatcher();
+
+        VerdictCache.Verdict verdict = this.verdictCache.get(message, matcher);
+        if (verdict != null) return verdict;
 
-            // Check if the banned phrase does not exist.
-            if (bannedPhraseIndex == -1) continue;
+        // The content stats are counted in the same pass that normalises the message.
+        MessageNormalizer.NormalizedMessage normalized = MessageNormalizer.normalize(message);
+        FilterResult filterResult = matcher.scan(normalized);
+        ContentStats content = normalized.getContentStats();
 
-            boolean startOfMessage = bannedPhraseIndex == 0;
-            boolean endOfMessage = bannedPhraseIndex + bannedPhrase.length() >= message.length();
+        verdict = new VerdictCache.Verdict(filterResult, this.domainPolicy.check(message), content);
 
-            // Check if the phrase is the entire message.
-            if (message.equals(bannedPhrase)) return true;
+        this.verdictCache.put(message, matcher, verdict);
+        return verdict;
+    }
+
+    /**
+     * Used to get the cache of filter verdicts.
+     *
+     * @return The verdict cache.
+     */
+    public @NotNull VerdictCache getVerdictCache() {
+        return this.verdictCache;
+    }
 
-            // Check if the message contains the banned phrase
-            // and spaces before and after.
-            if (message.contains(" " + bannedPhrase + " ")) return true;
+    /**
+     * Used to get the filters chat messages go through.
+     *
+     * @return The chat filter chain.
+     */
+    public @NotNull FilterChain getChatFilters() {
+        return this.chatFilters;
+    }
 
-            // Check if the phrase is at the start of
-            // the message and has a space after.
-            if (startOfMessage && message.contains(bannedPhrase + " ")) return true;
+    /**
+     * Used to get the filters private messages go through.
+     *
+     * @return The private message filter chain.
+     */
+    public @NotNull FilterChain getPrivateMessageFilters() {
+        return this.privateMessageFilters;
+    }
 
-            // Check if the phrase is at the end of
-            // the message and has a space before.
-            if (endOfMessage && message.contains(" " + bannedPhrase)) return true;
+    /**
+     * Used to get the filters messages from the discord bridge go through.
+     *
+     * @return The discord filter chain.
+     */
+    public @NotNull FilterChain getDiscordFilters() {
+        return this.discordFilters;
+    }
+
+    /**
+     * Used to get every filter chain.
+     *
+     * @return The filter chains.
+     */
+    public @NotNull List<FilterChain> getFilterChains() {
+        return List.of(this.chatFilters, this.privateMessageFilters, this.discordFilters);
+    }
+
+    /**
+     * Used to tell the sender and staff that a filter rejected a message.
+     * Messages from discord have no player to tell, so only staff are alerted.
+     *
+     * @param context   The message that was rejected.
+     * @param rejection Why it was rejected.
+     */
+    public void notifyRejected(@NotNull FilterContext context, @NotNull Rejection rejection) {
+        Player player = context.getPlayer();
+
+        if (player != null && rejection.notice() != null) {
+            new User(player).sendMessage(rejection.notice());
         }
 
-        return false;
+        if (rejection.staffMessage() != null) {
+            this.notifyStaff(context.getName(), rejection.staffMessage(), Objects.requireNonNull(rejection.alertTitle()), context.getMessage());
+        }
     }
 
     public void updatePlayerMessageTimes(Player player) {
-        if (!configuration.getBoolean("spam-detection.enabled")) {
+        if (!this.spamEnabled) {
             return;
         }
 
-        int storeLast = configuration.getInteger("spam-detection.store-last");
+        int storeLast = this.spamStoreLast;
 
-        playerMessageTimes.putIfAbsent(player, new ArrayList<>());
+        List<Instant> times = playerMessageTimes.computeIfAbsent(player, p -> Collections.synchronizedList(new ArrayList<>()));
 
-        List<Instant> times = playerMessageTimes.get(player);
+        synchronized (times) {
+            if (times.size() >= storeLast) {
+                times.remove(0);
+            }
 
-        if (times.size() >= storeLast) {
-            times.remove(0);
+            times.add(Instant.now());
         }
-
-        times.add(Instant.now());
     }
 
     public SpamFilterResults CheckSpam(Player player) {
@@ -279,19 +663,19 @@ public class ChatHandler {
         }
 
         // Check if min-time-between-messages is violated
-        if (Instant.now().isBefore(messageTimes.getLast().plusSeconds(configuration.getLong("spam-detection.min-time-between-messages")))){
+        if (Instant.now().isBefore(messageTimes.getLast().plusSeconds(this.spamMinTimeBetweenMessages))){
             return SpamFilterResults.MIN_TIME;
         }
 
         // Check message density if enabled
-        if (configuration.getBoolean("spam-detection.message-density.enabled")){
-                long maxAmount = configuration.getLong("spam-detection.message-density.max-amount");
-                long overTimeSeconds = configuration.getLong("spam-detection.message-density.over-time");
+        if (this.densityEnabled){
+                long maxAmount = this.densityMaxAmount;
+                long overTimeSeconds = this.densityOverTime;
 
                 Instant now = Instant.now();
                 Instant cutoff = now.minusSeconds(overTimeSeconds);
 
-                List<Instant> times = playerMessageTimes.computeIfAbsent(player, p -> new ArrayList<>());
+                List<Instant> times = playerMessageTimes.computeIfAbsent(player, p -> Collections.synchronizedList(new ArrayList<>()));
 
                 // Remove messages outside the density window
                 times.removeIf(time -> time.isBefore(cutoff));
@@ -360,6 +744,24 @@ public class ChatHandler {
         webhookManager.exec();
     }
 
+    /**
+     * Used to let staff know a message contained watchlist terms.
+     * The alert is sent from the scheduler so the message
+     * is never held up waiting for the webhook.
+     *
+     * @param name         The name of the player that sent the message.
+     * @param context      What the player did, for example "Sent Message".
+     * @param filterResult The filter result containing the terms.
+     * @param message      The message as it was sent.
+     */
+    public void notifyWatchlist(@NotNull String name, @NotNull String context, @NotNull FilterResult filterResult, @NotNull String message) {
+        String staffMessage = context + " with watchlist terms! (" + String.join(", ", filterResult.getAlerts()) + ")";
+
+        MineManiaChat.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaChat.getInstance(), () -> this.notifyStaff(name, staffMessage, "Watchlist Alert", message))
+                .schedule();
+    }
+
     public void ForwardDiscordMessage() {
 
     }
@@ -20,13 +20,20 @@
 
 package com.github.minemaniauk.minemaniachat;
 
+import com.github.minemaniauk.minemaniachat.broadcast.BroadcastEngine;
+import com.github.minemaniauk.minemaniachat.broadcast.RenderedMessage;
+import com.github.minemaniauk.minemaniachat.channel.ChannelIndex;
+import com.github.minemaniauk.minemaniachat.channel.MentionIndex;
 import com.github.minemaniauk.minemaniachat.commands.*;
 import com.github.minemaniauk.minemaniachat.discord.DiscordManager;
 import com.github.minemaniauk.minemaniachat.discord.EventTypes;
 import com.github.minemaniauk.minemaniachat.discord.commands.minecraft.*;
 import com.github.minemaniauk.minemaniachat.discord.link.LinkManager;
 import com.github.minemaniauk.minemaniachat.discord.link.LinkStorage;
+import com.github.minemaniauk.minemaniachat.filter.BannedWordList;
+import com.github.minemaniauk.minemaniachat.filter.MessageNormalizer;
 import com.github.minemaniauk.minemaniachat.message.DataManager;
+import com.github.minemaniauk.minemaniachat.message.IgnoreManager;
 import com.github.minemaniauk.minemaniachat.message.MessageHandler;
 import com.github.minemaniauk.minemaniachat.message.commands.*;
 import com.github.minemaniauk.velocity.minemaniavelocity.MineManiaVelocity;
@@ -52,6 +59,8 @@ import net.luckperms.api.LuckPermsProvider;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 @Plugin(
         id = "minemaniachat",
@@ -71,11 +80,17 @@ public class MineManiaChat {
     private final @NotNull Configuration configuration;
     private  final @NotNull Configuration discordConfig;
     private final @NotNull Configuration bannedWords;
+    private final @NotNull BannedWordList bannedWordList;
     private final @NotNull Configuration linksConfiguration;
     private @NotNull ChatHandler chatHandler;
+    private final @NotNull BroadcastEngine broadcastEngine;
+    private final @NotNull ChannelIndex channelIndex;
+    private final @NotNull MentionIndex mentionIndex;
     private DataBaseController dbController;
     private final @NotNull MessageHandler messageHandler;
     private final @NotNull DataManager dataManager;
+    private final @NotNull IgnoreManager ignoreManager;
+    private final @NotNull SlowMode slowMode;
     private final @NotNull Path playerDataPath;
     private final @NotNull Path dataPath;
     private CWVelocityIntegration cw;
@@ -109,6 +124,8 @@ public class MineManiaChat {
                 .create(folder.toFile(), "bannedwords")
                 .setDefaultPath("bannedwords.yml");
         this.bannedWords.load();
+        this.bannedWordList = new BannedWordList(this.bannedWords, folder);
+        this.logger.info("Using the " + MessageNormalizer.getScannerName() + " character scanner for the chat filters");
 
         // links.yml
         this.linksConfiguration = ConfigurationFactory.YAML
@@ -116,10 +133,16 @@ public class MineManiaChat {
 
         this.linksConfiguration.load();
 
+        this.broadcastEngine = new BroadcastEngine(this.configuration);
+        this.channelIndex = new ChannelIndex(this.configuration);
+        this.mentionIndex = new MentionIndex();
+
         // Create a new chat handler.
-        this.chatHandler = new ChatHandler(this.configuration, this.bannedWords);
+        this.chatHandler = new ChatHandler(this.configuration);
         this.messageHandler = new MessageHandler();
         this.dataManager = new DataManager(this.dataPath, this.playerDataPath);
+        this.ignoreManager = new IgnoreManager(this.dataManager);
+        this.slowMode = new SlowMode();
         if (configuration.getBoolean("database.enabled")){
             this.dbController = new DataBaseController(this.configuration);
         }
@@ -148,6 +171,8 @@ public class MineManiaChat {
         cm.register(cm.metaBuilder("enablepm").aliases("unmutepm").build(), new PmEnable());
         cm.register(cm.metaBuilder("disablepm").aliases("mutepm").build(), new PmDisable());
         cm.register(cm.metaBuilder("togglespy").aliases("spy").build(), new Spy());
+        cm.register(cm.metaBuilder("ignore").build(), new Ignore());
+        cm.register(cm.metaBuilder("unignore").build(), new Unignore());
         cm.register(cm.metaBuilder("servermessage").aliases("servermsg", "smsg").build(), new ServerMessage());
         cm.register(cm.metaBuilder("broadcast").build(), new Broadcast());
         cm.register(cm.metaBuilder("broadcastserver").build(), new BroadcastServer());
@@ -155,13 +180,24 @@ public class MineManiaChat {
         cm.register(cm.metaBuilder("chat").aliases("c", "talk").build(), new Chat());
         cm.register(cm.metaBuilder("mmchatspamcooldown").build(), new SpamCooldown());
         cm.register(cm.metaBuilder("list").aliases("listplayers").build(), new ListCommmand());
+        cm.register(cm.metaBuilder("mmchatload").build(), new ChatLoad());
+        cm.register(cm.metaBuilder("mmchatfilters").build(), new ChatFilters());
+        cm.register(cm.metaBuilder("slowmode").build(), new SlowModeCommand());
     }
 
     @Subscribe
     public void ProxyInitEvent(ProxyInitializeEvent event) {
         this.server.getEventManager().register(this, this.chatHandler);
+        this.server.getEventManager().register(this, this.channelIndex);
+        this.server.getEventManager().register(this, this.mentionIndex);
+        this.server.getEventManager().register(this, this.ignoreManager);
+        this.server.getEventManager().register(this, this.slowMode);
         this.permissionService = new PermissionService(LuckPermsProvider.get());
 
+        if (this.discordManager != null) {
+            this.discordManager.scheduleCoalescedFlush();
+        }
+
         this.server.getPluginManager().getPlugin("minemaniavelocity")
                 .flatMap(pluginContainer -> pluginContainer.getInstance())
                 .ifPresentOrElse(
@@ -191,7 +227,10 @@ public class MineManiaChat {
 
     @Subscribe
     public void OnShutdown(ProxyShutdownEvent event){
-        dbController.close();
+        this.chatHandler.shutdown();
+        this.broadcastEngine.shutdown();
+        this.bannedWordList.shutdown();
+        if (dbController != null) dbController.close();
     }
 
     @Subscribe
@@ -225,15 +264,10 @@ public class MineManiaChat {
 
         discordManager.sendEventDiscordLogWebhook(player, EventTypes.PLAYER_JOIN, null);
 
-        for (Player p : this.getProxyServer().getAllPlayers()) {
-            if (!staffOnly) {
-                new User(p).sendMessage("&a+ &7" + player.getUsername());
-            } else {
-                if (p.hasPermission("chat.joinmessage.alert")) {
-                        new User(p).sendMessage("&a+ &7" + player.getUsername());
-                }
-            }
-        }
+        this.broadcastEngine.deliver(
+                RenderedMessage.of(MessageManager.convertAndParse("&a+ &7" + player.getUsername(), null)),
+                this.getJoinMessageRecipients(staffOnly)
+        );
     }
 
     private void sendLeaveMessage(Player player, boolean staffOnly) {
@@ -251,30 +285,43 @@ public class MineManiaChat {
         }
 
 
+        this.broadcastEngine.deliver(
+                RenderedMessage.of(MessageManager.convertAndParse(message, null)),
+                this.getJoinMessageRecipients(staffOnly)
+        );
+    }
+
+    /**
+     * Used to get the players that should see a join or leave message.
+     *
+     * @param staffOnly If only players with the alert permission should see it.
+     * @return The players to send the message to.
+     */
+    private List<Player> getJoinMessageRecipients(boolean staffOnly) {
+        List<Player> recipients = new ArrayList<>();
+
         for (Player p : this.getProxyServer().getAllPlayers()) {
-            if (!staffOnly) {
-                new User(p).sendMessage(message);
-            } else {
-                if (p.hasPermission("chat.joinmessage.alert")) {
-                    new User(p).sendMessage(message);
-                }
+            if (!staffOnly || p.hasPermission("chat.joinmessage.alert")) {
+                recipients.add(p);
             }
         }
+
+        return recipients;
     }
 
     public void reloadBannedWords() {
-        this.server.getEventManager().unregisterListener(this, this.chatHandler);
-        this.bannedWords.load();
-        this.chatHandler = new ChatHandler(this.configuration, this.bannedWords);
-        this.server.getEventManager().register(this, this.chatHandler);
+        this.bannedWordList.load();
     }
 
     public void reloadConfigs() {
         this.server.getEventManager().unregisterListener(this, this.chatHandler);
+        this.chatHandler.shutdown();
         this.configuration.load();
-        this.bannedWords.load();
+        this.bannedWordList.load();
         this.discordConfig.load();
-        this.chatHandler = new ChatHandler(this.configuration, this.bannedWords);
+        this.broadcastEngine.reload(this.configuration);
+        this.channelIndex.reload(this.configuration);
+        this.chatHandler = new ChatHandler(this.configuration);
         if (configuration.getBoolean("database.enabled")){
             this.dbController = new DataBaseController(this.configuration);
         }
@@ -316,6 +363,20 @@ public class MineManiaChat {
      */
     public @NotNull DataManager getDataManager() { return this.dataManager; }
 
+    /**
+     * Used to get the instance of the ignore manager
+     *
+     * @return The instance of the ignore manager
+     */
+    public @NotNull IgnoreManager getIgnoreManager() { return this.ignoreManager; }
+
+    /**
+     * Used to get the instance of the slow mode
+     *
+     * @return The instance of the slow mode
+     */
+    public @NotNull SlowMode getSlowMode() { return this.slowMode; }
+
     /**
      * Used to get the instance of the message handler
      *
@@ -323,6 +384,27 @@ public class MineManiaChat {
      */
     public @NotNull MessageHandler getMessageHandler() { return this.messageHandler; }
 
+    /**
+     * Used to get the instance of the broadcast engine
+     *
+     * @return The instance of the broadcast engine
+     */
+    public @NotNull BroadcastEngine getBroadcastEngine() { return this.broadcastEngine; }
+
+    /**
+     * Used to get the instance of the channel index
+     *
+     * @return The instance of the channel index
+     */
+    public @NotNull ChannelIndex getChannelIndex() { return this.channelIndex; }
+
+    /**
+     * Used to get the instance of the mention index
+     *
+     * @return The instance of the mention index
+     */
+    public @NotNull MentionIndex getMentionIndex() { return this.mentionIndex; }
+
     /**
      * Used to get the instance of the chat handler
      *
@@ -362,6 +444,13 @@ public class MineManiaChat {
      */
     public Configuration getBannedWords() { return this.bannedWords; }
 
+    /**
+     * Used to get the banned word list
+     *
+     * @return The banned word list
+     */
+    public @NotNull BannedWordList getBannedWordList() { return this.bannedWordList; }
+
     /**
      * Used to get instance of MineMania chat config
      *
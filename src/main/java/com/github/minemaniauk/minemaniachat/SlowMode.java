@@ -0,0 +1,224 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat;
+
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ServerConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Used to limit how often players can talk while slow mode is on.
+ * <p>
+ * Slow mode can be set for all in-game chat, for one backend
+ * server or for messages coming from discord. Each scope keeps
+ * the last time every player talked in an {@link AtomicLong}, so
+ * checking a message is a map lookup and a compare and set
+ * without any locks.
+ */
+public class SlowMode {
+
+    public static final @NotNull String GLOBAL = "global";
+    public static final @NotNull String DISCORD = "discord";
+    public static final @NotNull String SERVER_PREFIX = "server:";
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final @NotNull Scope global = new Scope();
+    private final @NotNull Scope discord = new Scope();
+    private final @NotNull Map<String, Scope> servers = new ConcurrentHashMap<>();
+
+    /**
+     * Represents a place slow mode can be turned on.
+     */
+    private static final class Scope {
+        private volatile long intervalNanos;
+        private final @NotNull Map<UUID, AtomicLong> lastSent = new ConcurrentHashMap<>();
+
+        /**
+         * Used to take the players next slot to talk.
+         *
+         * @param uuid The players unique id.
+         * @param now  The current time in nanoseconds.
+         * @return Zero if they can talk, otherwise the nanoseconds left to wait.
+         */
+        private long acquire(@NotNull UUID uuid, long now) {
+            long interval = this.intervalNanos;
+            if (interval <= 0) return 0;
+
+            AtomicLong last = this.lastSent.computeIfAbsent(uuid, key -> new AtomicLong(NEVER));
+
+            while (true) {
+                long previous = last.get();
+
+                if (previous != NEVER) {
+                    long remaining = previous + interval - now;
+                    if (remaining > 0) return remaining;
+                }
+
+                if (last.compareAndSet(previous, now)) return 0;
+            }
+        }
+
+        private void setInterval(long seconds) {
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(Math.max(0, seconds));
+            if (seconds <= 0) this.lastSent.clear();
+        }
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+
+        this.global.lastSent.remove(uuid);
+        for (Scope scope : this.servers.values()) {
+            scope.lastSent.remove(uuid);
+        }
+    }
+
+    /**
+     * Used to get the scope of a server.
+     * Server scopes are prefixed, so a server called
+     * global or discord does not clash with those scopes.
+     *
+     * @param server The exact name of the server.
+     * @return The scope of the server.
+     */
+    public static @NotNull String server(@NotNull String server) {
+        return SERVER_PREFIX + server;
+    }
+
+    /**
+     * Used to set the slow mode for a scope.
+     *
+     * @param scope   Global, discord or a server scope from {@link #server(String)}.
+     * @param seconds The seconds between messages, or 0 to turn it off.
+     * @throws IllegalArgumentException If the scope is not one of them.
+     */
+    public void setInterval(@NotNull String scope, long seconds) {
+        if (scope.equalsIgnoreCase(GLOBAL)) {
+            this.global.setInterval(seconds);
+            return;
+        }
+
+        if (scope.equalsIgnoreCase(DISCORD)) {
+            this.discord.setInterval(seconds);
+            return;
+        }
+
+        String server = this.getServerName(scope);
+
+        if (seconds <= 0) {
+            this.servers.remove(server);
+            return;
+        }
+
+        this.servers.computeIfAbsent(server, key -> new Scope()).setInterval(seconds);
+    }
+
+    /**
+     * Used to get the slow mode of a scope.
+     *
+     * @param scope Global, discord or a server scope from {@link #server(String)}.
+     * @return The seconds between messages, or 0 if it is off.
+     * @throws IllegalArgumentException If the scope is not one of them.
+     */
+    public long getInterval(@NotNull String scope) {
+        Scope found = switch (scope.toLowerCase(Locale.ROOT)) {
+            case GLOBAL -> this.global;
+            case DISCORD -> this.discord;
+            default -> this.servers.get(this.getServerName(scope));
+        };
+
+        if (found == null) return 0;
+        return TimeUnit.NANOSECONDS.toSeconds(found.intervalNanos);
+    }
+
+    /**
+     * Used to get the servers that have slow mode on.
+     *
+     * @return The server names with their seconds between messages.
+     */
+    public @NotNull Map<String, Long> getServerIntervals() {
+        Map<String, Long> intervals = new TreeMap<>();
+        this.servers.forEach((name, scope) -> intervals.put(name, TimeUnit.NANOSECONDS.toSeconds(scope.intervalNanos)));
+        return intervals;
+    }
+
+    /**
+     * Used to check if a player can send an in-game message.
+     * When both global and server slow mode are on,
+     * only the longer of the two is applied.
+     *
+     * @param player The player sending the message.
+     * @return Zero if they can talk, otherwise the seconds left to wait.
+     */
+    public long acquire(@NotNull Player player) {
+        Scope scope = this.global;
+        Scope server = this.getServerScope(player);
+
+        if (server != null && server.intervalNanos > scope.intervalNanos) scope = server;
+        return this.toSeconds(scope.acquire(player.getUniqueId(), System.nanoTime()));
+    }
+
+    /**
+     * Used to check if a linked player can send a message from discord.
+     *
+     * @param uuid The linked players unique id.
+     * @return Zero if they can talk, otherwise the seconds left to wait.
+     */
+    public long acquireDiscord(@NotNull UUID uuid) {
+        return this.toSeconds(this.discord.acquire(uuid, System.nanoTime()));
+    }
+
+    private @NotNull String getServerName(@NotNull String scope) {
+        if (!scope.startsWith(SERVER_PREFIX)) {
+            throw new IllegalArgumentException("The slow mode scope " + scope + " is not global, discord or a server");
+        }
+
+        return scope.substring(SERVER_PREFIX.length());
+    }
+
+    private @Nullable Scope getServerScope(@NotNull Player player) {
+        if (this.servers.isEmpty()) return null;
+
+        ServerConnection connection = player.getCurrentServer().orElse(null);
+        if (connection == null) return null;
+
+        return this.servers.get(connection.getServerInfo().getName());
+    }
+
+    private long toSeconds(long nanos) {
+        if (nanos <= 0) return 0;
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.broadcast;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ServerConnection;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * Used to send a message to many players.
+ * The message is rendered into a component once
+ * and the same component is reused for every recipient
+ * and every registered sink.
+ * <p>
+ * Large recipient lists are split into shards, by backend
+ * server or into fixed size chunks, and delivered in parallel.
+ * Deliveries that share an order key are chained one after
+ * another so every player still receives them in the order
+ * they were broadcast. Deliveries with different keys, or no
+ * key, never wait on each other.
+ * <p>
+ * In {@link FanOutMode#PACKET} mode the chat packet itself is
+ * encoded once per protocol version, see {@link PacketFanOut}.
+ */
+public class BroadcastEngine {
+
+    /**
+     * The order key used for broadcasts that do not come
+     * from a player, such as announcements and join messages.
+     */
+    public static final @NotNull Object PROXY_ORDER = new Object();
+
+    private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
+
+    private final @NotNull List<BroadcastSink> sinks = new CopyOnWriteArrayList<>();
+    private final @NotNull ForkJoinPool pool;
+
+    private volatile @NotNull FanOutMode mode;
+    private volatile int chunkSize;
+    private volatile int parallelThreshold;
+
+    private final @NotNull Map<Object, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    /**
+     * Used to create a new broadcast engine.
+     * The console logger is registered as the first sink.
+     *
+     * @param configuration The configuration containing the fan-out section.
+     */
+    public BroadcastEngine(@NotNull Configuration configuration) {
+        this.pool = new ForkJoinPool(
+                Math.max(1, configuration.getInteger("fan-out.parallelism", Runtime.getRuntime().availableProcessors())),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                null,
+                true
+        );
+        this.reload(configuration);
+
+        this.sinks.add(message -> MineManiaChat.getInstance().getLogger().info(message.getComponent()));
+    }
+
+    /**
+     * Used to read the fan-out settings again.
+     * The amount of threads can only change on restart.
+     *
+     * @param configuration The configuration containing the fan-out section.
+     */
+    public void reload(@NotNull Configuration configuration) {
+        this.mode = FanOutMode.fromName(configuration.getString("fan-out.mode", "server"));
+        this.chunkSize = Math.max(1, configuration.getInteger("fan-out.chunk-size", 100));
+        this.parallelThreshold = Math.max(1, configuration.getInteger("fan-out.parallel-threshold", 64));
+    }
+
+    /**
+     * Used to get the executor deliveries are sent on.
+     *
+     * @return The delivery executor.
+     */
+    public @NotNull Executor getExecutor() {
+        return this.pool;
+    }
+
+    /**
+     * Used to add a sink that will receive every broadcast.
+     *
+     * @param sink The sink to add.
+     */
+    public void addSink(@NotNull BroadcastSink sink) {
+        this.sinks.add(sink);
+    }
+
+    /**
+     * Used to remove a sink.
+     *
+     * @param sink The sink to remove.
+     */
+    public void removeSink(@NotNull BroadcastSink sink) {
+        this.sinks.remove(sink);
+    }
+
+    /**
+     * Used to send a message to every online player
+     * and every registered sink.
+     *
+     * @param message The rendered message.
+     * @return A future that completes once every player was sent the message.
+     */
+    public @NotNull CompletableFuture<Void> broadcast(@NotNull RenderedMessage message) {
+        CompletableFuture<Void> future = this.deliver(message, MineManiaChat.getInstance().getProxyServer().getAllPlayers());
+        this.publish(message);
+        return future;
+    }
+
+    /**
+     * Used to send a message to every registered sink
+     * without sending it to any players.
+     *
+     * @param message The rendered message.
+     */
+    public void publish(@NotNull RenderedMessage message) {
+        for (BroadcastSink sink : this.sinks) {
+            sink.accept(message);
+        }
+    }
+
+    /**
+     * Used to send a message to a group of players.
+     * Sinks are not called.
+     *
+     * @param message    The rendered message.
+     * @param recipients The players to send the message to.
+     * @return A future that completes once every player was sent the message.
+     */
+    public @NotNull CompletableFuture<Void> deliver(@NotNull RenderedMessage message, @NotNull Collection<? extends Player> recipients) {
+        return this.deliver(message, recipients, Map.of());
+    }
+
+    /**
+     * Used to send a message to a group of players where
+     * some players receive a different version of the message,
+     * for example with their name highlighted.
+     * Sinks are not called.
+     *
+     * @param message    The rendered message.
+     * @param recipients The players to send the message to.
+     * @param variants   The players that should receive a different message.
+     * @return A future that completes once every player was sent the message.
+     */
+    public @NotNull CompletableFuture<Void> deliver(@NotNull RenderedMessage message,
+                                                   @NotNull Collection<? extends Player> recipients,
+                                                   @NotNull Map<Player, RenderedMessage> variants) {
+        return this.deliver(message, recipients, variants, null);
+    }
+
+    /**
+     * Used to send a message to a group of players, skipping
+     * any recipient the filter matches, for example players
+     * that are ignoring the sender.
+     * The filter is checked while sending so the recipients
+     * are never copied. Sinks are not called.
+     * <p>
+     * The delivery is ordered behind other deliveries
+     * with the {@link #PROXY_ORDER} key.
+     *
+     * @param message    The rendered message.
+     * @param recipients The players to send the message to.
+     * @param variants   The players that should receive a different message.
+     * @param skip       The recipients to skip, or null to send to everyone.
+     * @return A future that completes once every player was sent the message.
+     */
+    public @NotNull CompletableFuture<Void> deliver(@NotNull RenderedMessage message,
+                                                   @NotNull Collection<? extends Player> recipients,
+                                                   @NotNull Map<Player, RenderedMessage> variants,
+                                                   @Nullable Predicate<Player> skip) {
+        return this.deliver(message, recipients, variants, skip, PROXY_ORDER);
+    }
+
+    /**
+     * Used to send a message to a group of players, waiting
+     * for the last delivery with the same order key first.
+     * Small deliveries with nothing in front of them are
+     * sent straight away on the calling thread.
+     * Sinks are not called.
+     *
+     * @param message    The rendered message.
+     * @param recipients The players to send the message to.
+     * @param variants   The players that should receive a different message.
+     * @param skip       The recipients to skip, or null to send to everyone.
+     * @param orderKey   The key to keep deliveries in order with,
+     *                   or null if the caller already keeps its own order.
+     * @return A future that completes once every player was sent the message.
+     */
+    public @NotNull CompletableFuture<Void> deliver(@NotNull RenderedMessage message,
+                                                   @NotNull Collection<? extends Player> recipients,
+                                                   @NotNull Map<Player, RenderedMessage> variants,
+                                                   @Nullable Predicate<Player> skip,
+                                                   @Nullable Object orderKey) {
+
+        Component component = message.getComponent();
+
+        if (orderKey == null) {
+            return COMPLETED.thenCompose(ignored -> this.start(component, recipients, variants, skip));
+        }
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = this.tails.put(orderKey, done);
+
+        CompletableFuture<Void> future = (previous == null ? COMPLETED : previous)
+                .thenCompose(ignored -> this.start(component, recipients, variants, skip));
+
+        // Keep the chain going even if a delivery failed.
+        future.whenComplete((ignored, error) -> {
+            this.tails.remove(orderKey, done);
+
+            if (error != null) {
+                MineManiaChat.getInstance().getLogger().atError().setCause(error)
+                        .log("An error occurred while delivering a broadcast");
+            }
+
+            done.complete(null);
+        });
+
+        return future;
+    }
+
+    private @NotNull CompletableFuture<Void> start(@NotNull Component component,
+                                                  @NotNull Collection<? extends Player> recipients,
+                                                  @NotNull Map<Player, RenderedMessage> variants,
+                                                  @Nullable Predicate<Player> skip) {
+
+        PacketFanOut packetFanOut = this.mode == FanOutMode.PACKET ? PacketFanOut.get() : null;
+
+        // Encoded before sharding so each protocol version is encoded once per delivery.
+        PacketFanOut.Packets packets = packetFanOut == null ? null : packetFanOut.encode(component, recipients);
+
+        if (recipients.size() < this.parallelThreshold) {
+            try {
+                this.send(component, packets, recipients, variants, skip);
+            } finally {
+                if (packets != null) packets.release();
+            }
+            return COMPLETED;
+        }
+
+        CompletableFuture<Void> future = this.sendShards(component, packets, this.shard(recipients), variants, skip);
+        if (packets != null) future.whenComplete((ignored, error) -> packets.release());
+        return future;
+    }
+
+    private @NotNull CompletableFuture<Void> sendShards(@NotNull Component component,
+                                                       @Nullable PacketFanOut.Packets packets,
+                                                       @NotNull List<List<Player>> shards,
+                                                       @NotNull Map<Player, RenderedMessage> variants,
+                                                       @Nullable Predicate<Player> skip) {
+
+        if (shards.size() == 1) {
+            return CompletableFuture.runAsync(() -> this.send(component, packets, shards.get(0), variants, skip), this.pool);
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[shards.size()];
+        for (int index = 0; index < shards.size(); index++) {
+            List<Player> shard = shards.get(index);
+            futures[index] = CompletableFuture.runAsync(() -> this.send(component, packets, shard, variants, skip), this.pool);
+        }
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    private void send(@NotNull Component component,
+                      @Nullable PacketFanOut.Packets packets,
+                      @NotNull Collection<? extends Player> recipients,
+                      @NotNull Map<Player, RenderedMessage> variants,
+                      @Nullable Predicate<Player> skip) {
+
+        if (packets != null) {
+            packets.send(recipients, variants, skip);
+            return;
+        }
+
+        if (variants.isEmpty() && skip == null) {
+            for (Player player : recipients) {
+                player.sendMessage(component);
+            }
+            return;
+        }
+
+        for (Player player : recipients) {
+            if (skip != null && skip.test(player)) continue;
+
+            RenderedMessage variant = variants.get(player);
+            player.sendMessage(variant == null ? component : variant.getComponent());
+        }
+    }
+
+    private @NotNull List<List<Player>> shard(@NotNull Collection<? extends Player> recipients) {
+        List<List<Player>> shards = new ArrayList<>();
+
+        if (this.mode == FanOutMode.CHUNK) {
+            this.chunk(recipients, shards);
+            return shards;
+        }
+
+        if (this.mode == FanOutMode.PACKET) {
+            Map<ProtocolVersion, List<Player>> byVersion = new EnumMap<>(ProtocolVersion.class);
+
+            for (Player player : recipients) {
+                byVersion.computeIfAbsent(player.getProtocolVersion(), version -> new ArrayList<>()).add(player);
+            }
+
+            for (List<Player> versionPlayers : byVersion.values()) {
+                this.chunk(versionPlayers, shards);
+            }
+            return shards;
+        }
+
+        Map<RegisteredServer, List<Player>> byServer = new LinkedHashMap<>();
+        List<Player> noServer = new ArrayList<>();
+
+        for (Player player : recipients) {
+            ServerConnection connection = player.getCurrentServer().orElse(null);
+
+            if (connection == null) {
+                noServer.add(player);
+                continue;
+            }
+
+            byServer.computeIfAbsent(connection.getServer(), server -> new ArrayList<>()).add(player);
+        }
+
+        for (List<Player> serverPlayers : byServer.values()) {
+            this.chunk(serverPlayers, shards);
+        }
+
+        if (!noServer.isEmpty()) shards.add(noServer);
+        return shards;
+    }
+
+    private void chunk(@NotNull Collection<? extends Player> players, @NotNull List<List<Player>> shards) {
+        List<Player> current = new ArrayList<>(Math.min(players.size(), this.chunkSize));
+
+        for (Player player : players) {
+            current.add(player);
+
+            if (current.size() >= this.chunkSize) {
+                shards.add(current);
+                current = new ArrayList<>(this.chunkSize);
+            }
+        }
+
+        if (!current.isEmpty()) shards.add(current);
+    }
+
+    /**
+     * Used to stop the fan-out threads.
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+}
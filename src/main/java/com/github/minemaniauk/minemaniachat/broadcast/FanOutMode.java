@@ -0,0 +1,67 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.broadcast;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+
+/**
+ * Represents how recipients are split up
+ * before a message is delivered in parallel.
+ */
+public enum FanOutMode {
+
+    /**
+     * One shard for each backend server.
+     * Large servers are split into chunks as well.
+     */
+    SERVER,
+
+    /**
+     * Fixed size chunks of the recipient list.
+     */
+    CHUNK,
+
+    /**
+     * One shard for each client protocol version.
+     * The chat packet is encoded once per shard and the same
+     * buffer is written to every connection in it.
+     */
+    PACKET;
+
+    /**
+     * Used to get a fan-out mode from its config name.
+     *
+     * @param name The name in the config.
+     * @return The fan-out mode, {@link #SERVER} if unknown.
+     */
+    public static @NotNull FanOutMode fromName(String name) {
+        if (name == null) return SERVER;
+
+        try {
+            return FanOutMode.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            return SERVER;
+        }
+    }
+}
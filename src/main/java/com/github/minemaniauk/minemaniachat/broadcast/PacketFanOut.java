@@ -0,0 +1,290 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.broadcast;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.velocitypowered.api.network.ProtocolVersion;
+import com.velocitypowered.api.proxy.Player;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Used to send the same chat message to many players
+ * while only encoding the packet once per protocol version.
+ * The {@link BroadcastEngine} encodes the packets before it
+ * splits the recipients into shards, so every shard writes
+ * the same buffers.
+ * <p>
+ * Velocity normally builds and encodes a system chat packet for
+ * every player. This reaches into the proxy internals to encode
+ * the packet into a buffer once, then writes a retained view of
+ * that buffer to each connection. Compression and encryption are
+ * still done per connection by the proxy.
+ * <p>
+ * The internals are looked up once. If anything can not be found,
+ * or a player is not in a state to receive it, the message is sent
+ * with {@link Player#sendMessage(Component)} instead.
+ */
+final class PacketFanOut {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private static volatile @Nullable PacketFanOut instance;
+    private static volatile boolean resolved;
+
+    private final @NotNull Class<?> connectedPlayerClass;
+    private final @NotNull MethodHandle getConnection;
+    private final @NotNull MethodHandle getState;
+    private final @NotNull MethodHandle isClosed;
+    private final @NotNull MethodHandle write;
+    private final @NotNull MethodHandle newComponentHolder;
+    private final @NotNull MethodHandle newSystemChatPacket;
+    private final @NotNull MethodHandle getProtocolRegistry;
+    private final @NotNull MethodHandle getPacketId;
+    private final @NotNull MethodHandle encode;
+    private final @NotNull MethodHandle writeVarInt;
+    private final @NotNull MethodHandle newBuffer;
+    private final @NotNull MethodHandle retainedDuplicate;
+    private final @NotNull MethodHandle release;
+
+    private final @NotNull Object playState;
+    private final @NotNull Object clientbound;
+    private final @NotNull Object systemChatType;
+
+    private PacketFanOut(@NotNull ClassLoader loader) throws ReflectiveOperationException {
+        this.connectedPlayerClass = Class.forName("com.velocitypowered.proxy.connection.client.ConnectedPlayer", false, loader);
+        Class<?> connectionClass = Class.forName("com.velocitypowered.proxy.connection.MinecraftConnection", false, loader);
+        Class<?> stateRegistryClass = Class.forName("com.velocitypowered.proxy.protocol.StateRegistry", false, loader);
+        Class<?> protocolUtilsClass = Class.forName("com.velocitypowered.proxy.protocol.ProtocolUtils", false, loader);
+        Class<?> directionClass = Class.forName("com.velocitypowered.proxy.protocol.ProtocolUtils$Direction", false, loader);
+        Class<?> packetClass = Class.forName("com.velocitypowered.proxy.protocol.MinecraftPacket", false, loader);
+        Class<?> componentHolderClass = Class.forName("com.velocitypowered.proxy.protocol.packet.chat.ComponentHolder", false, loader);
+        Class<?> chatTypeClass = Class.forName("com.velocitypowered.proxy.protocol.packet.chat.ChatType", false, loader);
+        Class<?> systemChatClass = Class.forName("com.velocitypowered.proxy.protocol.packet.chat.SystemChatPacket", false, loader);
+        Class<?> byteBufClass = Class.forName("io.netty.buffer.ByteBuf", false, loader);
+        Class<?> unpooledClass = Class.forName("io.netty.buffer.Unpooled", false, loader);
+        Class<?> referenceCountedClass = Class.forName("io.netty.util.ReferenceCounted", false, loader);
+
+        Method getProtocolRegistryMethod = stateRegistryClass.getMethod("getProtocolRegistry", directionClass, ProtocolVersion.class);
+
+        this.getConnection = generic(LOOKUP.findVirtual(this.connectedPlayerClass, "getConnection", MethodType.methodType(connectionClass)));
+        this.getState = generic(LOOKUP.findVirtual(connectionClass, "getState", MethodType.methodType(stateRegistryClass)));
+        this.isClosed = generic(LOOKUP.findVirtual(connectionClass, "isClosed", MethodType.methodType(boolean.class)));
+        this.write = generic(LOOKUP.findVirtual(connectionClass, "write", MethodType.methodType(void.class, Object.class)));
+        this.newComponentHolder = generic(LOOKUP.findConstructor(componentHolderClass, MethodType.methodType(void.class, ProtocolVersion.class, Component.class)));
+        this.newSystemChatPacket = generic(LOOKUP.findConstructor(systemChatClass, MethodType.methodType(void.class, componentHolderClass, chatTypeClass)));
+        this.getProtocolRegistry = generic(LOOKUP.unreflect(getProtocolRegistryMethod));
+        this.getPacketId = generic(LOOKUP.findVirtual(getProtocolRegistryMethod.getReturnType(), "getPacketId", MethodType.methodType(int.class, packetClass)));
+        this.encode = generic(LOOKUP.findVirtual(packetClass, "encode", MethodType.methodType(void.class, byteBufClass, directionClass, ProtocolVersion.class)));
+        this.writeVarInt = generic(LOOKUP.findStatic(protocolUtilsClass, "writeVarInt", MethodType.methodType(void.class, byteBufClass, int.class)));
+        this.newBuffer = generic(LOOKUP.findStatic(unpooledClass, "buffer", MethodType.methodType(byteBufClass)));
+        this.retainedDuplicate = generic(LOOKUP.findVirtual(byteBufClass, "retainedDuplicate", MethodType.methodType(byteBufClass)));
+
+        // Duplicates still being written hold their own reference, so whether
+        // this release freed the buffer says nothing useful and is dropped.
+        this.release = generic(MethodHandles.dropReturn(LOOKUP.findVirtual(referenceCountedClass, "release", MethodType.methodType(boolean.class))));
+
+        this.playState = enumConstant(stateRegistryClass, "PLAY");
+        this.clientbound = enumConstant(directionClass, "CLIENTBOUND");
+        this.systemChatType = enumConstant(chatTypeClass, "SYSTEM");
+    }
+
+    /**
+     * Used to get the packet fan-out if the proxy internals it needs exist.
+     *
+     * @return The packet fan-out, or null if it can not be used.
+     */
+    static @Nullable PacketFanOut get() {
+        if (resolved) return instance;
+
+        synchronized (PacketFanOut.class) {
+            if (resolved) return instance;
+
+            try {
+                instance = new PacketFanOut(MineManiaChat.getInstance().getProxyServer().getClass().getClassLoader());
+            } catch (ReflectiveOperationException | RuntimeException exception) {
+                MineManiaChat.getInstance().getLogger().warn("Packet fan-out is not supported by this proxy version, falling back to normal delivery ({})", exception.toString());
+            }
+
+            resolved = true;
+            return instance;
+        }
+    }
+
+    /**
+     * Used to encode a message once for each protocol
+     * version used by a group of players.
+     *
+     * @param component  The message.
+     * @param recipients The players it will be sent to.
+     * @return The encoded packets.
+     */
+    @NotNull Packets encode(@NotNull Component component, @NotNull Collection<? extends Player> recipients) {
+        Map<ProtocolVersion, Object> buffers = new EnumMap<>(ProtocolVersion.class);
+
+        for (Player player : recipients) {
+            ProtocolVersion version = player.getProtocolVersion();
+
+            // Older clients use a different packet, leave those to the proxy.
+            if (version.compareTo(ProtocolVersion.MINECRAFT_1_19) < 0 || buffers.containsKey(version)) continue;
+
+            try {
+                buffers.put(version, this.encode(component, version));
+            } catch (Throwable throwable) {
+                MineManiaChat.getInstance().getLogger().atDebug().setCause(throwable)
+                        .log("Unable to encode a chat packet for " + version);
+                buffers.put(version, null);
+            }
+        }
+
+        return new Packets(component, buffers);
+    }
+
+    /**
+     * Represents a message encoded for every protocol version
+     * in a delivery. It is built once before the recipients are
+     * split into shards and shared by all of them, and must be
+     * released once every shard has been sent.
+     */
+    final class Packets {
+
+        private final @NotNull Component component;
+        private final @NotNull Map<ProtocolVersion, Object> buffers;
+
+        private Packets(@NotNull Component component, @NotNull Map<ProtocolVersion, Object> buffers) {
+            this.component = component;
+            this.buffers = buffers;
+        }
+
+        /**
+         * Used to send the packets to a group of players.
+         * This may be called from many threads at once.
+         *
+         * @param recipients The players to send it to.
+         * @param variants   The players that should receive a different message.
+         * @param skip       The recipients to skip, or null to send to everyone.
+         */
+        void send(@NotNull Collection<? extends Player> recipients,
+                  @NotNull Map<Player, RenderedMessage> variants,
+                  @Nullable Predicate<Player> skip) {
+
+            for (Player player : recipients) {
+                if (skip != null && skip.test(player)) continue;
+
+                RenderedMessage variant = variants.get(player);
+                if (variant != null) {
+                    player.sendMessage(variant.getComponent());
+                    continue;
+                }
+
+                Object buffer = this.buffers.get(player.getProtocolVersion());
+                if (buffer == null || !PacketFanOut.this.write(player, buffer)) {
+                    player.sendMessage(this.component);
+                }
+            }
+        }
+
+        /**
+         * Used to release the packets once every shard was sent.
+         */
+        void release() {
+            for (Object buffer : this.buffers.values()) {
+                if (buffer == null) continue;
+
+                try {
+                    PacketFanOut.this.release.invokeExact(buffer);
+                } catch (Throwable throwable) {
+                    // The buffer is unpooled so the garbage collector will free it.
+                }
+            }
+        }
+    }
+
+    private boolean write(@NotNull Player player, @NotNull Object buffer) {
+        try {
+            Object connection = this.getPlayConnection(player);
+            if (connection == null) return false;
+
+            Object duplicate = this.retainedDuplicate.invokeExact(buffer);
+            this.write.invokeExact(connection, duplicate);
+            return true;
+
+        } catch (Throwable throwable) {
+            MineManiaChat.getInstance().getLogger().atDebug().setCause(throwable)
+                    .log("Unable to write a chat packet to " + player.getUsername());
+            return false;
+        }
+    }
+
+    private @Nullable Object getPlayConnection(@NotNull Player player) throws Throwable {
+        if (!this.connectedPlayerClass.isInstance(player)) return null;
+
+        Object connection = this.getConnection.invokeExact((Object) player);
+        if ((boolean) this.isClosed.invokeExact(connection)) return null;
+        if ((Object) this.getState.invokeExact(connection) != this.playState) return null;
+
+        return connection;
+    }
+
+    private @NotNull Object encode(@NotNull Component component, @NotNull ProtocolVersion version) throws Throwable {
+        Object holder = this.newComponentHolder.invokeExact((Object) version, (Object) component);
+        Object packet = this.newSystemChatPacket.invokeExact(holder, this.systemChatType);
+        Object registry = this.getProtocolRegistry.invokeExact(this.playState, this.clientbound, (Object) version);
+        int packetId = (int) this.getPacketId.invokeExact(registry, packet);
+
+        Object buffer = this.newBuffer.invokeExact();
+        this.writeVarInt.invokeExact(buffer, packetId);
+        this.encode.invokeExact(packet, buffer, this.clientbound, (Object) version);
+        return buffer;
+    }
+
+    private static @NotNull MethodHandle generic(@NotNull MethodHandle handle) {
+        MethodType type = handle.type().generic();
+        if (handle.type().returnType() == void.class) type = type.changeReturnType(void.class);
+        if (handle.type().returnType() == boolean.class) type = type.changeReturnType(boolean.class);
+        if (handle.type().returnType() == int.class) type = type.changeReturnType(int.class);
+
+        for (int index = 0; index < handle.type().parameterCount(); index++) {
+            if (handle.type().parameterType(index) == int.class) type = type.changeParameterType(index, int.class);
+        }
+
+        return handle.asType(type);
+    }
+
+    private static @NotNull Object enumConstant(@NotNull Class<?> enumClass, @NotNull String name) {
+        for (Object constant : enumClass.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(name)) return constant;
+        }
+
+        throw new IllegalArgumentException("Missing " + enumClass.getSimpleName() + "." + name);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.broadcast;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a chat message that has already been
+ * converted into a component.
+ * The component is built once and then shared between
+ * every recipient, the console and any other sinks.
+ * <p>
+ * A message wrapped from a component only works out its
+ * legacy text if something asks for it, as nothing on the
+ * broadcast path needs it.
+ */
+public final class RenderedMessage {
+
+    // Strings are immutable, so two threads working it out at once is harmless.
+    private @Nullable String legacyMessage;
+    private final @NotNull Component component;
+
+    private RenderedMessage(@Nullable String legacyMessage, @NotNull Component component) {
+        this.legacyMessage = legacyMessage;
+        this.component = component;
+    }
+
+    /**
+     * Used to render a message that uses the
+     * legacy ampersand colour codes.
+     *
+     * @param legacyMessage The message to render.
+     * @return The rendered message.
+     */
+    public static @NotNull RenderedMessage fromLegacy(@NotNull String legacyMessage) {
+        return new RenderedMessage(
+                legacyMessage,
+                LegacyComponentSerializer.legacyAmpersand().deserialize(legacyMessage)
+        );
+    }
+
+    /**
+     * Used to wrap a component that has already been built.
+     *
+     * @param component The instance of the component.
+     * @return The rendered message.
+     */
+    public static @NotNull RenderedMessage of(@NotNull Component component) {
+        return new RenderedMessage(null, component);
+    }
+
+    /**
+     * Used to get the message before it was rendered.
+     *
+     * @return The legacy ampersand message.
+     */
+    public @NotNull String getLegacyMessage() {
+        if (this.legacyMessage == null) {
+            this.legacyMessage = LegacyComponentSerializer.legacyAmpersand().serialize(this.component);
+        }
+
+        return this.legacyMessage;
+    }
+
+    /**
+     * Used to get the rendered component.
+     *
+     * @return The component to send.
+     */
+    public @NotNull Component getComponent() {
+        return this.component;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.channel;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import com.github.smuddgge.squishyconfiguration.interfaces.ConfigurationSection;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Used to keep track of who is in each chat channel.
+ * Membership is updated when players join, switch server
+ * and leave, so finding the recipients of a message costs
+ * nothing more than the members of the channel.
+ */
+public class ChannelIndex {
+
+    private volatile @NotNull Map<String, ChatChannel> channels = Map.of();
+    private volatile @NotNull ChatChannel defaultChannel = new ChatChannel("global", "", null, false, true);
+
+    private volatile @NotNull Map<String, Set<Player>> members = new ConcurrentHashMap<>();
+    private final @NotNull Map<String, Set<Player>> serverMembers = new ConcurrentHashMap<>();
+    private final @NotNull Map<UUID, ChatChannel> activeChannels = new ConcurrentHashMap<>();
+
+    /**
+     * Used to create a new channel index.
+     *
+     * @param configuration The configuration containing the channels section.
+     */
+    public ChannelIndex(@NotNull Configuration configuration) {
+        this.reload(configuration);
+    }
+
+    /**
+     * Used to load the channels from the config again
+     * and rebuild the membership of every online player.
+     *
+     * @param configuration The configuration containing the channels section.
+     */
+    public synchronized void reload(@NotNull Configuration configuration) {
+        Map<String, ChatChannel> loaded = new LinkedHashMap<>();
+        ConfigurationSection section = configuration.getSection("channels.list");
+
+        for (String key : section.getKeys()) {
+            loaded.put(key.toLowerCase(Locale.ROOT), ChatChannel.fromSection(key.toLowerCase(Locale.ROOT), section.getSection(key)));
+        }
+
+        if (loaded.isEmpty()) {
+            loaded.put(this.defaultChannel.getName(), this.defaultChannel);
+        }
+
+        // The members are worked out before anything is swapped in,
+        // so messages sent during a reload still reach the whole channel.
+        Collection<Player> players = MineManiaChat.getInstance().getProxyServer().getAllPlayers();
+        Map<String, Set<Player>> loadedMembers = new ConcurrentHashMap<>();
+        for (Player player : players) {
+            this.indexChannels(player, loaded.values(), loadedMembers);
+        }
+
+        String defaultName = configuration.getString("channels.default", "global").toLowerCase(Locale.ROOT);
+        this.defaultChannel = loaded.getOrDefault(defaultName, loaded.values().iterator().next());
+        this.channels = Collections.unmodifiableMap(loaded);
+        this.members = loadedMembers;
+
+        // Keep players in the channel with the same name, if it still exists.
+        this.activeChannels.replaceAll((uuid, channel) -> loaded.getOrDefault(channel.getName(), this.defaultChannel));
+
+        for (Player player : players) {
+            this.checkActiveChannel(player);
+        }
+    }
+
+    @Subscribe
+    public void onPostLogin(PostLoginEvent event) {
+        this.indexPermissions(event.getPlayer());
+    }
+
+    @Subscribe
+    public synchronized void onServerConnected(ServerConnectedEvent event) {
+        Player player = event.getPlayer();
+
+        event.getPreviousServer().ifPresent(server -> {
+            Set<Player> previous = this.serverMembers.get(server.getServerInfo().getName());
+            if (previous != null) previous.remove(player);
+        });
+
+        this.serverMembers
+                .computeIfAbsent(event.getServer().getServerInfo().getName(), name -> ConcurrentHashMap.newKeySet())
+                .add(player);
+
+        // Permissions can depend on the server, so check them again.
+        this.indexPermissions(player);
+    }
+
+    @Subscribe
+    public synchronized void onDisconnect(DisconnectEvent event) {
+        Player player = event.getPlayer();
+
+        for (Set<Player> channelMembers : this.members.values()) {
+            channelMembers.remove(player);
+        }
+
+        for (Set<Player> players : this.serverMembers.values()) {
+            players.remove(player);
+        }
+
+        this.activeChannels.remove(player.getUniqueId());
+    }
+
+    private synchronized void indexPermissions(@NotNull Player player) {
+        this.indexChannels(player, this.channels.values(), this.members);
+        this.checkActiveChannel(player);
+    }
+
+    private void indexChannels(@NotNull Player player, @NotNull Collection<ChatChannel> channels, @NotNull Map<String, Set<Player>> members) {
+        for (ChatChannel channel : channels) {
+            if (channel.isLocal()) continue;
+
+            Set<Player> channelMembers = members.computeIfAbsent(channel.getName(), name -> ConcurrentHashMap.newKeySet());
+
+            if (this.canUse(player, channel)) channelMembers.add(player);
+            else channelMembers.remove(player);
+        }
+    }
+
+    private void checkActiveChannel(@NotNull Player player) {
+        ChatChannel active = this.activeChannels.get(player.getUniqueId());
+        if (active != null && !this.canUse(player, active)) {
+            this.activeChannels.remove(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Used to get the players that should receive a message.
+     * Local channels are indexed by server rather than by permission,
+     * so if a local channel has a permission the players on the
+     * server are checked for it here.
+     *
+     * @param channel The channel the message was sent in.
+     * @param sender  The player that sent the message.
+     * @return The recipients of the message.
+     */
+    public @NotNull Collection<Player> getRecipients(@NotNull ChatChannel channel, @NotNull Player sender) {
+        if (channel.isLocal()) {
+            String serverName = sender.getCurrentServer()
+                    .map(connection -> connection.getServerInfo().getName())
+                    .orElse(null);
+
+            if (serverName == null) return List.of(sender);
+
+            Set<Player> players = this.serverMembers.getOrDefault(serverName, Set.of());
+            if (channel.getPermission() == null) return players;
+
+            List<Player> recipients = new ArrayList<>(players.size());
+            for (Player player : players) {
+                if (this.canUse(player, channel)) recipients.add(player);
+            }
+            return recipients;
+        }
+
+        return this.members.getOrDefault(channel.getName(), Set.of());
+    }
+
+    /**
+     * Used to check if a player can see and talk in a channel.
+     *
+     * @param player  The player to check.
+     * @param channel The channel to check.
+     * @return True if they can use the channel.
+     */
+    public boolean canUse(@NotNull Player player, @NotNull ChatChannel channel) {
+        return channel.getPermission() == null || player.hasPermission(channel.getPermission());
+    }
+
+    /**
+     * Used to get the channel a player is talking in.
+     *
+     * @param player The player.
+     * @return Their active channel.
+     */
+    public @NotNull ChatChannel getActiveChannel(@NotNull Player player) {
+        return this.activeChannels.getOrDefault(player.getUniqueId(), this.defaultChannel);
+    }
+
+    /**
+     * Used to set the channel a player talks in.
+     *
+     * @param player  The player.
+     * @param channel The channel to talk in.
+     */
+    public void setActiveChannel(@NotNull Player player, @NotNull ChatChannel channel) {
+        this.activeChannels.put(player.getUniqueId(), channel);
+    }
+
+    /**
+     * Used to get a channel by name.
+     *
+     * @param name The name of the channel.
+     * @return The channel or null if it does not exist.
+     */
+    public @Nullable ChatChannel getChannel(@NotNull String name) {
+        return this.channels.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public @NotNull Collection<ChatChannel> getChannels() {
+        return this.channels.values();
+    }
+
+    public @NotNull ChatChannel getDefaultChannel() {
+        return this.defaultChannel;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.channel;
+
+import com.github.smuddgge.squishyconfiguration.interfaces.ConfigurationSection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a named chat channel.
+ * Members of a channel are the players that receive its messages.
+ */
+public class ChatChannel {
+
+    private final @NotNull String name;
+    private final @NotNull String prefix;
+    private final @Nullable String permission;
+    private final boolean local;
+    private final boolean bridged;
+
+    /**
+     * Used to create a new chat channel.
+     *
+     * @param name       The name of the channel.
+     * @param prefix     The prefix added in front of messages.
+     * @param permission The permission needed to see and talk in the channel,
+     *                   or null if everyone can.
+     * @param local      If the channel only reaches players on the senders server.
+     * @param bridged    If messages are forwarded to the discord bridge.
+     */
+    public ChatChannel(@NotNull String name, @NotNull String prefix, @Nullable String permission, boolean local, boolean bridged) {
+        this.name = name;
+        this.prefix = prefix;
+        this.permission = permission;
+        this.local = local;
+        this.bridged = bridged;
+    }
+
+    /**
+     * Used to load a channel from its config section.
+     *
+     * @param name    The name of the channel.
+     * @param section The config section of the channel.
+     * @return The chat channel.
+     */
+    public static @NotNull ChatChannel fromSection(@NotNull String name, @NotNull ConfigurationSection section) {
+        String permission = section.getString("permission", "");
+
+        return new ChatChannel(
+                name,
+                section.getString("prefix", ""),
+                permission.isBlank() ? null : permission,
+                section.getBoolean("local", false),
+                section.getBoolean("discord", false)
+        );
+    }
+
+    public @NotNull String getName() {
+        return this.name;
+    }
+
+    public @NotNull String getPrefix() {
+        return this.prefix;
+    }
+
+    public @Nullable String getPermission() {
+        return this.permission;
+    }
+
+    /**
+     * Used to check if the channel only reaches
+     * players on the same backend server as the sender.
+     *
+     * @return True if the channel is local.
+     */
+    public boolean isLocal() {
+        return this.local;
+    }
+
+    /**
+     * Used to check if messages in this channel
+     * are forwarded to the discord bridge.
+     *
+     * @return True if bridged.
+     */
+    public boolean isBridged() {
+        return this.bridged;
+    }
+}
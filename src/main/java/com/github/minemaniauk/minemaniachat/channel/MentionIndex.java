@@ -0,0 +1,211 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.channel;
+
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Used to find online players mentioned in a message.
+ * <p>
+ * Online usernames are kept in a case-insensitive trie that is
+ * updated when players join and leave. A mention has to be a whole
+ * word, so the trie is only walked from the start of each word and
+ * every character of the message is looked at once.
+ * <p>
+ * Names only count when written as {@code @name} unless
+ * {@code mentions.bare-names} is turned on, so a player called
+ * "gg" is not pinged by everyone saying gg.
+ */
+public class MentionIndex {
+
+    private static final int ALPHABET = 37;
+
+    private final @NotNull Node root = new Node();
+
+    /**
+     * Represents one character of a username.
+     */
+    private static final class Node {
+        // Written under the index lock and read by chat threads without it,
+        // so every slot is read and written with volatile semantics.
+        private final AtomicReferenceArray<Node> children = new AtomicReferenceArray<>(ALPHABET);
+        private volatile Player player;
+
+        // Only used while holding the index lock.
+        private int childCount;
+    }
+
+    /**
+     * Represents a mention of an online player.
+     *
+     * @param player The player that was mentioned.
+     * @param start  The index of the first character of their name.
+     * @param end    The index after the last character of their name.
+     */
+    public record Mention(@NotNull Player player, int start, int end) {
+    }
+
+    @Subscribe
+    public void onPostLogin(PostLoginEvent event) {
+        this.add(event.getPlayer());
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        this.remove(event.getPlayer());
+    }
+
+    /**
+     * Used to add a player that can be mentioned.
+     *
+     * @param player The player to add.
+     */
+    public synchronized void add(@NotNull Player player) {
+        Node node = this.root;
+        String name = player.getUsername();
+
+        for (int index = 0; index < name.length(); index++) {
+            int symbol = symbol(name.charAt(index));
+            if (symbol < 0) return;
+
+            Node child = node.children.get(symbol);
+            if (child == null) {
+                child = new Node();
+                node.children.set(symbol, child);
+                node.childCount++;
+            }
+            node = child;
+        }
+
+        node.player = player;
+    }
+
+    /**
+     * Used to remove a player that has left.
+     * Nodes left with no player and no children are removed
+     * on the way back up, so the trie only ever holds the
+     * names of players that are online.
+     *
+     * @param player The player to remove.
+     */
+    public synchronized void remove(@NotNull Player player) {
+        String name = player.getUsername();
+        Node[] path = new Node[name.length() + 1];
+        path[0] = this.root;
+
+        for (int index = 0; index < name.length(); index++) {
+            int symbol = symbol(name.charAt(index));
+            if (symbol < 0) return;
+
+            path[index + 1] = path[index].children.get(symbol);
+            if (path[index + 1] == null) return;
+        }
+
+        Node node = path[name.length()];
+        if (node.player != player) return;
+        node.player = null;
+
+        for (int index = name.length(); index > 0; index--) {
+            Node child = path[index];
+            if (child.player != null || child.childCount > 0) return;
+
+            Node parent = path[index - 1];
+            parent.children.set(symbol(name.charAt(index - 1)), null);
+            parent.childCount--;
+        }
+    }
+
+    /**
+     * Used to find the online players mentioned in a message.
+     * A mention is a name written straight after an {@code @}
+     * that does not follow another word, so email addresses
+     * are not mentions.
+     *
+     * @param message   The message to scan.
+     * @param bareNames True if a name on its own without an {@code @} is also a mention.
+     * @return The mentions in the order they appear, empty if there are none.
+     */
+    public @NotNull List<Mention> scan(@NotNull CharSequence message, boolean bareNames) {
+        List<Mention> mentions = List.of();
+        int length = message.length();
+        int index = 0;
+
+        while (index < length) {
+
+            // Skip to the start of the next word.
+            if (symbol(message.charAt(index)) < 0) {
+                index++;
+                continue;
+            }
+
+            int start = index;
+            boolean marked = start > 0 && message.charAt(start - 1) == '@'
+                    && (start == 1 || symbol(message.charAt(start - 2)) < 0);
+
+            if (!marked && !bareNames) {
+                while (index < length && symbol(message.charAt(index)) >= 0) index++;
+                continue;
+            }
+
+            // The highlight covers the @ as well as the name.
+            if (marked) start--;
+            Node node = this.root;
+
+            while (index < length && node != null) {
+                int symbol = symbol(message.charAt(index));
+                if (symbol < 0) break;
+                node = node.children.get(symbol);
+                index++;
+            }
+
+            // Only a whole word is a mention.
+            boolean wholeWord = index >= length || symbol(message.charAt(index)) < 0;
+            Player player = node == null ? null : node.player;
+
+            if (wholeWord && player != null) {
+                if (mentions.isEmpty()) mentions = new ArrayList<>(2);
+                mentions.add(new Mention(player, start, index));
+            }
+
+            // Move past the rest of the word.
+            while (index < length && symbol(message.charAt(index)) >= 0) index++;
+        }
+
+        return mentions;
+    }
+
+    private static int symbol(char character) {
+        if (character >= 'a' && character <= 'z') return character - 'a';
+        if (character >= 'A' && character <= 'Z') return character - 'A';
+        if (character >= '0' && character <= '9') return 26 + character - '0';
+        if (character == '_') return 36;
+        return -1;
+    }
+}
@@ -21,10 +21,11 @@
 package com.github.minemaniauk.minemaniachat.commands;
 
 import com.github.minemaniauk.minemaniachat.MineManiaChat;
-import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import com.github.minemaniauk.minemaniachat.filter.FilterResult;
 import com.velocitypowered.api.command.SimpleCommand;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
+import java.util.Collection;
 import java.util.List;
 
 public class BannedWords implements SimpleCommand {
@@ -33,7 +34,7 @@ public class BannedWords implements SimpleCommand {
         String[] args = invocation.arguments();
 
         if (args.length < 2) {
-            invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&c&l> &cUsage: /mmchatbannedwords <add|check|remove> <word>"));
+            invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&c&l> &cUsage: /mmchatbannedwords <add|check|remove|import> <word|file>"));
             return;
         }
 
@@ -42,13 +43,7 @@ public class BannedWords implements SimpleCommand {
         switch (args[0]){
             case "add":
                 try {
-                    Configuration bannedWordConfig = MineManiaChat.getInstance().getBannedWords();
-                    List<String> bannedWords = bannedWordConfig.getListString("banned-words");
-                    if (!bannedWords.contains(wordInput)){
-                        bannedWords.add(wordInput);
-                        MineManiaChat.getInstance().getBannedWords().set("banned-words", bannedWords);
-                        bannedWordConfig.save();
-                        MineManiaChat.getInstance().reloadBannedWords();
+                    if (MineManiaChat.getInstance().getBannedWordList().add(wordInput)){
                         invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7Successfully added \"" + "&c" + wordInput + "&7" + "\" to the banned words list"));
                     }
                     else {
@@ -62,10 +57,16 @@ public class BannedWords implements SimpleCommand {
                 return;
             case "check":
                 try {
-                    boolean wordBanned = MineManiaChat.getInstance().getChatHandler().containsBannedWords(wordInput);
-                    if (wordBanned){
+                    FilterResult filterResult = MineManiaChat.getInstance().getChatHandler().scanBannedWords(wordInput);
+                    if (filterResult.isBlocked()){
                         invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7\"" + "&f" + wordInput + "&7" + "\" is &cbanned"));
                     }
+                    else if (filterResult.hasMasks()){
+                        invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7\"" + "&f" + wordInput + "&7" + "\" is &emasked &7as \"&f" + filterResult.mask(wordInput) + "&7\""));
+                    }
+                    else if (filterResult.isAlerted()){
+                        invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7\"" + "&f" + wordInput + "&7" + "\" is on the &ewatchlist"));
+                    }
                     else {
                         invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7\"" + "&f" + wordInput + "&7" + "\" is &anot banned"));
                     }
@@ -78,13 +79,7 @@ public class BannedWords implements SimpleCommand {
 
             case "remove":
                 try {
-                    Configuration bannedWordConfig = MineManiaChat.getInstance().getBannedWords();
-                    List<String> bannedWords = bannedWordConfig.getListString("banned-words");
-                    if (bannedWords.contains(wordInput)){
-                        bannedWords.remove(wordInput);
-                        MineManiaChat.getInstance().getBannedWords().set("banned-words", bannedWords);
-                        bannedWordConfig.save();
-                        MineManiaChat.getInstance().reloadBannedWords();
+                    if (MineManiaChat.getInstance().getBannedWordList().remove(wordInput)){
                         invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7Successfully removed \"" + "&a" + wordInput + "&7" + "\" from the banned words list"));
                     }
                     else {
@@ -97,8 +92,24 @@ public class BannedWords implements SimpleCommand {
                 }
                 return;
 
+            case "import":
+                invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7Importing banned words from &f" + wordInput + "&7..."));
+
+                // Large files are read off the command thread.
+                MineManiaChat.getInstance().getProxyServer().getScheduler().buildTask(MineManiaChat.getInstance(), () -> {
+                    try {
+                        int added = MineManiaChat.getInstance().getBannedWordList().importFile(wordInput);
+                        invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7Imported &f" + added + " &7new banned words from &f" + wordInput));
+                    }
+                    catch (Exception e) {
+                        invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&c&l> &cAn error occurred. No changes have been made"));
+                        MineManiaChat.getInstance().getLogger().atError().setCause(e).log("An error occurred when importing banned words from " + wordInput);
+                    }
+                }).schedule();
+                return;
+
             default:
-                invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&c&l> &7Invalid argument please provide &fadd&7, &fcheck &7or &fremove&7."));
+                invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&c&l> &7Invalid argument please provide &fadd&7, &fcheck&7, &fremove &7or &fimport&7."));
                 return;
         }
     }
@@ -108,12 +119,12 @@ public class BannedWords implements SimpleCommand {
         String[] args = invocation.arguments();
 
         if (args.length == 0) {
-            return List.of("add", "check", "remove");
+            return List.of("add", "check", "remove", "import");
         }
 
         if (args.length == 1) {
             String prefix = args[0].toLowerCase();
-            return List.of("add", "check", "remove").stream()
+            return List.of("add", "check", "remove", "import").stream()
                     .filter(s -> s.startsWith(prefix))
                     .toList();
         }
@@ -122,9 +133,9 @@ public class BannedWords implements SimpleCommand {
             String prefix = args[1].toLowerCase();
             if (prefix.isBlank()) return List.of();
 
-            List<String> completions = MineManiaChat.getInstance()
-                    .getBannedWords()
-                    .getListString("banned-words");
+            Collection<String> completions = MineManiaChat.getInstance()
+                    .getBannedWordList()
+                    .getPhrases();
 
             return completions.stream()
                     .filter(w -> w.toLowerCase().startsWith(prefix))
@@ -21,9 +21,8 @@
 package com.github.minemaniauk.minemaniachat.commands;
 
 import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.minemaniauk.minemaniachat.broadcast.RenderedMessage;
 import com.velocitypowered.api.command.SimpleCommand;
-import com.velocitypowered.api.proxy.Player;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
 public class Broadcast implements SimpleCommand {
     @Override
@@ -36,13 +35,10 @@ public class Broadcast implements SimpleCommand {
 
         String message = String.join(" ", java.util.Arrays.copyOfRange(args, 0, args.length));
 
-        for (Player p : MineManiaChat.getInstance().getProxyServer().getAllPlayers()){
-            p.sendMessage(
-                    LegacyComponentSerializer.legacyAmpersand().deserialize(
-                            "&f&l[&c&lServer Broadcast&f&l] &a&l" + message
-                    )
-            );
-        }
+        MineManiaChat.getInstance().getBroadcastEngine().deliver(
+                RenderedMessage.fromLegacy("&f&l[&c&lServer Broadcast&f&l] &a&l" + message),
+                MineManiaChat.getInstance().getProxyServer().getAllPlayers()
+        );
     }
 
     @Override
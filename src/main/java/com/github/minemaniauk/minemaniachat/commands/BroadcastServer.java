@@ -21,8 +21,8 @@
 package com.github.minemaniauk.minemaniachat.commands;
 
 import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.minemaniauk.minemaniachat.broadcast.RenderedMessage;
 import com.velocitypowered.api.command.SimpleCommand;
-import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
@@ -45,11 +45,10 @@ public class BroadcastServer implements SimpleCommand {
 
         if (optionalServer.isPresent()){
             RegisteredServer server = optionalServer.get();
-            for (Player p : server.getPlayersConnected()){
-                p.sendMessage(
-                        LegacyComponentSerializer.legacyAmpersand().deserialize("&f&l[&c&lServer Broadcast&f&l] &a&l" + message)
-                );
-            }
+            MineManiaChat.getInstance().getBroadcastEngine().deliver(
+                    RenderedMessage.fromLegacy("&f&l[&c&lServer Broadcast&f&l] &a&l" + message),
+                    server.getPlayersConnected()
+            );
             invocation.source().sendMessage(
                     LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7Successfully broadcasted to &f" + server.getServerInfo().getName())
             );
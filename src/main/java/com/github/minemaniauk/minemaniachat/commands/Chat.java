@@ -21,16 +21,45 @@
 package com.github.minemaniauk.minemaniachat.commands;
 
 import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.minemaniauk.minemaniachat.User;
+import com.github.minemaniauk.minemaniachat.channel.ChannelIndex;
+import com.github.minemaniauk.minemaniachat.channel.ChatChannel;
 import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.event.player.PlayerChatEvent;
 import com.velocitypowered.api.proxy.Player;
 
+import java.util.List;
+
 public class Chat implements SimpleCommand {
     @Override
     public void execute(Invocation invocation) {
 
         if (invocation.source() instanceof Player p) {
-            String message = String.join(" ", invocation.arguments());
+            String[] args = invocation.arguments();
+
+            // Check if a channel was given, for example /chat #staff hello
+            if (args.length > 0 && args[0].startsWith("#")) {
+                ChannelIndex channelIndex = MineManiaChat.getInstance().getChannelIndex();
+                ChatChannel channel = channelIndex.getChannel(args[0].substring(1));
+
+                if (channel == null || !channelIndex.canUse(p, channel)) {
+                    new User(p).sendMessage("&c&l> &7The channel &f" + args[0] + " &7could not be found");
+                    return;
+                }
+
+                // Switch channel if there is no message.
+                if (args.length == 1) {
+                    channelIndex.setActiveChannel(p, channel);
+                    new User(p).sendMessage("&7&l> &7You are now talking in &f#" + channel.getName());
+                    return;
+                }
+
+                String message = String.join(" ", java.util.Arrays.copyOfRange(args, 1, args.length));
+                MineManiaChat.getInstance().getChatHandler().submit(p, message, channel);
+                return;
+            }
+
+            String message = String.join(" ", args);
 
             PlayerChatEvent event = new PlayerChatEvent(p, message);
 
@@ -40,4 +69,21 @@ public class Chat implements SimpleCommand {
             invocation.source().sendPlainMessage("Executor must be a player");
         }
     }
+
+    @Override
+    public List<String> suggest(Invocation invocation) {
+        String[] args = invocation.arguments();
+        if (args.length > 1 || !(invocation.source() instanceof Player player)) return List.of();
+
+        String prefix = args.length == 0 ? "" : args[0].toLowerCase();
+        if (!prefix.isEmpty() && !prefix.startsWith("#")) return List.of();
+
+        ChannelIndex channelIndex = MineManiaChat.getInstance().getChannelIndex();
+
+        return channelIndex.getChannels().stream()
+                .filter(channel -> channelIndex.canUse(player, channel))
+                .map(channel -> "#" + channel.getName())
+                .filter(name -> name.startsWith(prefix))
+                .toList();
+    }
 }
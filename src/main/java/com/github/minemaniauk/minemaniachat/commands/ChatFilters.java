@@ -0,0 +1,65 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.commands;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.minemaniauk.minemaniachat.filter.chain.FilterChain;
+import com.velocitypowered.api.command.SimpleCommand;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+public class ChatFilters implements SimpleCommand {
+    @Override
+    public void execute(Invocation invocation) {
+        StringBuilder output = new StringBuilder("&7&l> &7Chat filters in the order they run");
+
+        for (FilterChain chain : MineManiaChat.getInstance().getChatHandler().getFilterChains()) {
+            output.append("\n&7").append(chain.getName())
+                    .append(" &7(&f").append(chain.getChecked()).append(" &7messages")
+                    .append(", verdict avg &f").append(String.format("%.1f", chain.getAverageVerdictMicros())).append("µs&7");
+
+            if (!chain.isAdaptive()) {
+                output.append(", reordering is &cdisabled&7");
+            }
+
+            output.append(")");
+
+            int position = 1;
+            for (FilterChain.Stats stats : chain.getStats()) {
+                output.append("\n&7").append(position++).append(". &f").append(stats.filter())
+                        .append(" &7checked &f").append(stats.checked())
+                        .append(" &7rejected &f").append(String.format("%.1f", stats.getRejectRate())).append("%")
+                        .append(" &7avg &f").append(String.format("%.1f", stats.getAverageMicros())).append("µs");
+
+                if (stats.fixed()) {
+                    output.append(" &7(fixed)");
+                }
+            }
+        }
+
+        invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize(output.toString()));
+    }
+
+    @Override
+    public boolean hasPermission(Invocation invocation) {
+        return invocation.source().hasPermission("chat.manage.filters");
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.commands;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.minemaniauk.minemaniachat.filter.VerdictCache;
+import com.github.minemaniauk.minemaniachat.pipeline.ChatPipeline;
+import com.github.minemaniauk.minemaniachat.pipeline.LoadShedder;
+import com.github.minemaniauk.minemaniachat.pipeline.PipelineStage;
+import com.velocitypowered.api.command.SimpleCommand;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+public class ChatLoad implements SimpleCommand {
+    @Override
+    public void execute(Invocation invocation) {
+        ChatPipeline pipeline = MineManiaChat.getInstance().getChatHandler().getPipeline();
+        LoadShedder loadShedder = pipeline.getLoadShedder();
+
+        StringBuilder output = new StringBuilder("&7&l> &7Chat load tier: &f" + loadShedder.getTier());
+
+        if (!loadShedder.isEnabled()) {
+            output.append(" &7(load shedding is &cdisabled&7)");
+        }
+
+        output.append("\n&7").append(loadShedder.getTier().getDescription())
+                .append("\n&7Average latency: &f").append(String.format("%.1f", loadShedder.getAverageLatencyMillis())).append("ms")
+                .append("\n&7Fullest queue: &f").append(loadShedder.getQueuePercent()).append("%");
+
+        for (PipelineStage stage : pipeline.getStages()) {
+            output.append("\n&7- &f").append(stage.getName())
+                    .append(" &7queue &f").append(stage.getQueueDepth())
+                    .append("&7/&f").append(stage.getQueueCapacity());
+        }
+
+        output.append("\n&7Skipped webhook logs: &f").append(loadShedder.getSkippedWebhookLogs())
+                .append("\n&7Skipped console logs: &f").append(loadShedder.getSkippedConsoleLogs())
+                .append("\n&7Coalesced Discord messages: &f").append(loadShedder.getCoalescedDiscordMessages());
+
+        VerdictCache verdictCache = MineManiaChat.getInstance().getChatHandler().getVerdictCache();
+
+        if (verdictCache.isEnabled()) {
+            output.append("\n&7Filter cache hit rate: &f").append(String.format("%.1f", verdictCache.getHitRate())).append("%")
+                    .append(" &7(&f").append(verdictCache.getHits()).append(" &7hits, &f").append(verdictCache.getMisses()).append(" &7misses)")
+                    .append("\n&7Filter cache entries: &f").append(verdictCache.getSize())
+                    .append(" &7evicted &f").append(verdictCache.getEvictions());
+        }
+
+        invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize(output.toString()));
+    }
+
+    @Override
+    public boolean hasPermission(Invocation invocation) {
+        return invocation.source().hasPermission("chat.manage.load");
+    }
+}
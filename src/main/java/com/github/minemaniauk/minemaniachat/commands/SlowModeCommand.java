@@ -0,0 +1,131 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.commands;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.minemaniauk.minemaniachat.SlowMode;
+import com.velocitypowered.api.command.SimpleCommand;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+public class SlowModeCommand implements SimpleCommand {
+    @Override
+    public void execute(Invocation invocation) {
+        String[] args = invocation.arguments();
+        SlowMode slowMode = MineManiaChat.getInstance().getSlowMode();
+
+        if (args.length == 0) {
+            invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7Global slow mode &f" + this.describe(slowMode.getInterval(SlowMode.GLOBAL))));
+            invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7Discord slow mode &f" + this.describe(slowMode.getInterval(SlowMode.DISCORD))));
+
+            for (Map.Entry<String, Long> entry : slowMode.getServerIntervals().entrySet()) {
+                invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7Slow mode on &f" + entry.getKey() + " " + this.describe(entry.getValue())));
+            }
+            return;
+        }
+
+        if (args.length < 2) {
+            invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&c&l> &cUsage: /slowmode <global|discord|server:name> <seconds>"));
+            return;
+        }
+
+        long seconds;
+        try {
+            seconds = Long.parseLong(args[1]);
+        } catch (NumberFormatException exception) {
+            invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&c&l> &7The seconds &f" + args[1] + " &7is not a number."));
+            return;
+        }
+
+        if (seconds < 0) {
+            invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&c&l> &cThe seconds can not be negative"));
+            return;
+        }
+
+        String scope = args[0];
+        String name = scope;
+
+        // A server called global or discord can still be picked with server:<name>.
+        boolean prefixed = scope.regionMatches(true, 0, SlowMode.SERVER_PREFIX, 0, SlowMode.SERVER_PREFIX.length());
+
+        if (prefixed || (!scope.equalsIgnoreCase(SlowMode.GLOBAL) && !scope.equalsIgnoreCase(SlowMode.DISCORD))) {
+            if (prefixed) name = scope.substring(SlowMode.SERVER_PREFIX.length());
+            Optional<RegisteredServer> server = MineManiaChat.getInstance().getProxyServer().getServer(name);
+
+            if (server.isEmpty()) {
+                invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&c&l> &7The server &f" + name + " &7Could not be found."));
+                return;
+            }
+
+            name = server.get().getServerInfo().getName();
+            scope = SlowMode.server(name);
+        }
+
+        slowMode.setInterval(scope, seconds);
+
+        if (seconds == 0) {
+            invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7Slow mode for &f" + name + " &7is now &coff"));
+            return;
+        }
+
+        invocation.source().sendMessage(LegacyComponentSerializer.legacyAmpersand().deserialize("&7&l> &7Slow mode for &f" + name + " &7is now &f" + seconds + " &7seconds"));
+    }
+
+    private String describe(long seconds) {
+        if (seconds <= 0) return "&coff";
+        return seconds + " &7seconds";
+    }
+
+    @Override
+    public List<String> suggest(Invocation invocation) {
+        String[] args = invocation.arguments();
+
+        if (args.length > 1) return List.of();
+
+        List<String> completions = new ArrayList<>();
+        completions.add(SlowMode.GLOBAL);
+        completions.add(SlowMode.DISCORD);
+        for (RegisteredServer server : MineManiaChat.getInstance().getProxyServer().getAllServers()) {
+            String name = server.getServerInfo().getName();
+            completions.add(name.equalsIgnoreCase(SlowMode.GLOBAL) || name.equalsIgnoreCase(SlowMode.DISCORD)
+                    ? SlowMode.server(name)
+                    : name);
+        }
+
+        String prefix = args.length > 0 ? args[0].toLowerCase(Locale.ROOT) : "";
+
+        return completions.stream()
+                .filter(name -> name.toLowerCase(Locale.ROOT).startsWith(prefix))
+                .toList();
+    }
+
+    @Override
+    public boolean hasPermission(Invocation invocation) {
+        return invocation.source().hasPermission("chat.manage.slowmode");
+    }
+}
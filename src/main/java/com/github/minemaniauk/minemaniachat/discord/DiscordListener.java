@@ -1,17 +1,22 @@
 package com.github.minemaniauk.minemaniachat.discord;
 
 import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.minemaniauk.minemaniachat.broadcast.RenderedMessage;
+import com.github.minemaniauk.minemaniachat.filter.DomainPolicy;
+import com.github.minemaniauk.minemaniachat.filter.FilterResult;
+import com.github.minemaniauk.minemaniachat.filter.VerdictCache;
+import com.github.minemaniauk.minemaniachat.filter.chain.FilterContext;
+import com.github.minemaniauk.minemaniachat.filter.chain.Rejection;
 import com.github.smuddgge.squishyconfiguration.interfaces.ConfigurationSection;
-import com.velocitypowered.api.proxy.Player;
 import io.github.sbcomputerteh.chatwatch.cwvelocity.CWVelocity;
 import io.github.sbcomputerteh.chatwatch.cwvelocity.packet.ChatMessagePacket;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
-import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
 import java.awt.Color;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -95,15 +100,16 @@ public class DiscordListener extends ListenerAdapter {
             String minecraftUsername,
             String message
     ) {
-        boolean hasUrl = MineManiaChat.getInstance()
+        VerdictCache.Verdict verdict = MineManiaChat.getInstance()
                 .getChatHandler()
-                .URL_PATTERN
-                .matcher(message)
-                .find();
+                .getVerdict(message);
 
-        boolean hasBannedWords = MineManiaChat.getInstance()
-                .getChatHandler()
-                .containsBannedWords(message);
+        boolean hasUrl = verdict.link() == DomainPolicy.Action.UNLISTED;
+        FilterResult filterResult = verdict.filterResult();
+
+        boolean hasBannedWords = filterResult.isBlocked()
+                || filterResult.isAlerted()
+                || filterResult.hasMasks();
 
         CompletableFuture<Boolean> urlBypassFuture;
 
@@ -129,79 +135,61 @@ public class DiscordListener extends ListenerAdapter {
                 .getPermissionService()
                 .hasPermission(minecraftUuid, "chat.bypass.disable");
 
-        CompletableFuture.allOf(urlBypassFuture, bannedWordsBypassFuture, disableBypassFuture)
-                .thenApply(ignored -> {
-                    boolean hasUrlBypass = urlBypassFuture.join();
-                    boolean hasBannedWordsBypass = bannedWordsBypassFuture.join();
-                    boolean hasDisableBypass = disableBypassFuture.join();
-
-                    if (hasUrl && !hasUrlBypass) {
-                        event.getMessage().delete().queue();
-
-                        EmbedBuilder embed = new EmbedBuilder()
-                                .setTitle("Message could not be delivered")
-                                .setDescription("Try removing any URLs from your message.")
-                                .setColor(Color.RED);
-
-                        event.getMessage().replyEmbeds(embed.build()).queue();
-                        MineManiaChat.getInstance().getChatHandler().notifyStaff(member.getUser().getName(), "Sent Message with a URL!(via the discord bridge)", "URL Alert", message);
-                        return false;
-                    }
+        CompletableFuture<Boolean> contentBypassFuture = MineManiaChat.getInstance()
+                .getPermissionService()
+                .hasPermission(minecraftUuid, "chat.bypass.filter.content");
 
-                    if (hasBannedWords && !hasBannedWordsBypass) {
+        CompletableFuture.allOf(urlBypassFuture, bannedWordsBypassFuture, disableBypassFuture, contentBypassFuture)
+                .thenApply(ignored -> {
+                    Map<String, Boolean> permissions = Map.of(
+                            "chat.bypass.filter.url", urlBypassFuture.join(),
+                            "chat.bypass.filter.banned-words", bannedWordsBypassFuture.join(),
+                            "chat.bypass.disable", disableBypassFuture.join(),
+                            "chat.bypass.filter.content", contentBypassFuture.join()
+                    );
+
+                    FilterContext context = FilterContext.discord(
+                            member.getUser().getName(),
+                            minecraftUuid,
+                            message,
+                            verdict,
+                            permission -> permissions.getOrDefault(permission, false)
+                    );
+
+                    Rejection rejection = MineManiaChat.getInstance()
+                            .getChatHandler()
+                            .getDiscordFilters()
+                            .check(context);
+
+                    if (rejection != null) {
                         event.getMessage().delete().queue();
-                        MineManiaChat.getInstance().getChatHandler().notifyStaff(member.getUser().getName(),  "Sent Message with Banned words! (via the discord bridge)", "Banned word Alert", message);
-                        return false;
-                    }
-
-                    if (!MineManiaChat.getInstance().getConfig().getBoolean("chat-enabled")) {
-                        if (!hasDisableBypass) {
-                            event.getMessage().delete().queue();
 
+                        if (rejection.notice() != null) {
                             EmbedBuilder embed = new EmbedBuilder()
                                     .setTitle("Message could not be delivered")
-                                    .setDescription("Chat is disabled on the server")
+                                    .setDescription(rejection.notice())
                                     .setColor(Color.RED);
 
                             event.getMessage().replyEmbeds(embed.build()).queue();
-                            return false;
                         }
-                    }
-
-                    if (!MineManiaChat.getInstance().getConfig().getBoolean("discord-enabled")
-                            || !MineManiaChat.getInstance().getConfig().getBoolean("chat-enabled")) {
-                        if (!hasDisableBypass) {
-                            event.getMessage().delete().queue();
-
-                            EmbedBuilder embed = new EmbedBuilder()
-                                    .setTitle("Message could not be delivered")
-                                    .setDescription("The discord bridge is currently disabled")
-                                    .setColor(Color.RED);
 
-                            event.getMessage().replyEmbeds(embed.build()).queue();
-                            return false;
-                        }
+                        MineManiaChat.getInstance().getChatHandler().notifyRejected(context, rejection);
+                        return null;
                     }
 
-                    return true;
+                    return context;
                 })
-                .thenAccept(allowed -> {
-                    if (!allowed) {
+                .thenAccept(context -> {
+                    if (context == null) {
                         return;
                     }
 
-                    formatMessage(member, minecraftUuid, minecraftUsername, message)
-                            .thenAccept(chatReadyMessage -> {
-                                for (Player p : MineManiaChat.getInstance().getProxyServer().getAllPlayers()) {
-                                    p.sendMessage(
-                                            LegacyComponentSerializer.legacyAmpersand().deserialize(chatReadyMessage)
-                                    );
-                                }
-
-                                MineManiaChat.getInstance().getLogger().info(
-                                        LegacyComponentSerializer.legacyAmpersand().deserialize(chatReadyMessage)
-                                );
-                            });
+                    String filteredMessage = context.getFilterResult().mask(message);
+
+                    formatMessage(member, minecraftUuid, minecraftUsername, filteredMessage)
+                            .thenAccept(chatReadyMessage -> MineManiaChat.getInstance()
+                                    .getBroadcastEngine()
+                                    .broadcast(RenderedMessage.fromLegacy(chatReadyMessage)));
                 })
                 .exceptionally(error -> {
                     event.getMessage().delete().queue();
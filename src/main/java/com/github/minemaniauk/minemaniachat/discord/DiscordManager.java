@@ -47,12 +47,18 @@ import net.dv8tion.jda.api.requests.GatewayIntent;
 
 import java.awt.*;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 
 public class DiscordManager {
 
+    private static final int MAX_EMBED_DESCRIPTION = 4000;
+    private static final int DROPPED_LINE_SPACE = 32;
+
     private JDA jda;
     public Configuration discordConfig;
+    private StringBuilder coalescedMessages = new StringBuilder();
+    private int droppedMessages;
 
     public DiscordManager(Configuration discordConfig) {
         this.discordConfig = discordConfig;
@@ -124,6 +130,79 @@ public class DiscordManager {
         channel.sendMessageEmbeds(embed.build()).queue();
     }
 
+    /**
+     * Used to queue an in-game message to be sent to discord
+     * as part of a single summary embed instead of its own embed.
+     * Only as many messages as fit in one embed are kept each
+     * flush window, the rest are counted and dropped.
+     *
+     * @param sender  The player that sent the message.
+     * @param message The message.
+     */
+    public void queueCoalescedMessage(Player sender, String message) {
+        String line = "**" + sender.getUsername() + "**: " + escapeLegacyFormatting(message);
+        int limit = MAX_EMBED_DESCRIPTION - DROPPED_LINE_SPACE;
+
+        synchronized (this) {
+            int length = this.coalescedMessages.length();
+
+            if (length == 0) {
+                this.coalescedMessages.append(line, 0, Math.min(line.length(), limit));
+                return;
+            }
+
+            if (length + line.length() + 1 > limit) {
+                this.droppedMessages++;
+                return;
+            }
+
+            this.coalescedMessages.append("\n").append(line);
+        }
+    }
+
+    /**
+     * Used to start the task that sends coalesced messages.
+     * This must be called after the plugin has been initialised.
+     */
+    public void scheduleCoalescedFlush() {
+        MineManiaChat.getInstance().getProxyServer().getScheduler()
+                .buildTask(MineManiaChat.getInstance(), this::flushCoalescedMessages)
+                .repeat(MineManiaChat.getInstance().getConfig().getInteger("load-shedding.discord-coalesce-seconds", 5), TimeUnit.SECONDS)
+                .schedule();
+    }
+
+    /**
+     * Used to send the queued in-game messages as one embed.
+     * Messages that were dropped this window are shown as a count
+     * and are never carried into the next flush.
+     */
+    public void flushCoalescedMessages() {
+        StringBuilder description;
+        int dropped;
+
+        synchronized (this) {
+            if (this.coalescedMessages.length() == 0) return;
+
+            description = this.coalescedMessages;
+            dropped = this.droppedMessages;
+            this.coalescedMessages = new StringBuilder();
+            this.droppedMessages = 0;
+        }
+
+        MessageChannel channel = jda.getChannelById(MessageChannel.class, discordConfig.getString("active-channel-id"));
+        if (channel == null) return;
+
+        if (dropped > 0) {
+            description.append("\n*+").append(dropped).append(dropped == 1 ? " more message*" : " more messages*");
+        }
+
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle("In-game chat")
+                .setDescription(description.toString());
+
+        channel.sendMessageEmbeds(embed.build()).queue();
+    }
+
     public void sendMessageDiscordLogWebhook(Player player, String message) {
         String webhookUrl = MineManiaChat.getInstance().getConfig().getString("webhook-logging-url");
 
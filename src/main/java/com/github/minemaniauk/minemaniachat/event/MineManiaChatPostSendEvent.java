@@ -0,0 +1,92 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.event;
+
+import com.github.minemaniauk.minemaniachat.channel.ChatChannel;
+import com.velocitypowered.api.proxy.Player;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Called after a chat message has been sent to its recipients.
+ * Chat does not wait for listeners of this event.
+ */
+public class MineManiaChatPostSendEvent {
+
+    private final @NotNull Player sender;
+    private final @NotNull ChatChannel channel;
+    private final @NotNull String message;
+    private final @NotNull Component component;
+    private final @NotNull Collection<Player> recipients;
+
+    /**
+     * Used to create a new post-send event.
+     *
+     * @param sender     The player that sent the message.
+     * @param channel    The channel the message was sent in.
+     * @param message    The message as the player typed it.
+     * @param component  The rendered message.
+     * @param recipients The players the message was sent to.
+     */
+    public MineManiaChatPostSendEvent(@NotNull Player sender,
+                                      @NotNull ChatChannel channel,
+                                      @NotNull String message,
+                                      @NotNull Component component,
+                                      @NotNull Collection<Player> recipients) {
+
+        this.sender = sender;
+        this.channel = channel;
+        this.message = message;
+        this.component = component;
+        this.recipients = Collections.unmodifiableCollection(recipients);
+    }
+
+    public @NotNull Player getSender() {
+        return this.sender;
+    }
+
+    public @NotNull ChatChannel getChannel() {
+        return this.channel;
+    }
+
+    public @NotNull String getMessage() {
+        return this.message;
+    }
+
+    public @NotNull Component getComponent() {
+        return this.component;
+    }
+
+    /**
+     * Used to get the players the message was sent to.
+     * Players ignoring the sender are not included,
+     * and the list can not be changed.
+     *
+     * @return The recipients.
+     */
+    public @NotNull Collection<Player> getRecipients() {
+        return this.recipients;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.event;
+
+import com.github.minemaniauk.minemaniachat.channel.ChatChannel;
+import com.velocitypowered.api.event.ResultedEvent;
+import com.velocitypowered.api.proxy.Player;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+
+/**
+ * Called after a chat message has passed moderation and been
+ * rendered, before it is sent to any players.
+ * <p>
+ * Denying the result stops the message being sent. Listeners
+ * are given a limited time to answer, after that the message
+ * is sent anyway so a slow listener can not hold up chat.
+ */
+public class MineManiaChatPreSendEvent implements ResultedEvent<ResultedEvent.GenericResult> {
+
+    private final @NotNull Player sender;
+    private final @NotNull ChatChannel channel;
+    private final @NotNull String message;
+    private final @NotNull Component component;
+    private final @NotNull Collection<Player> recipients;
+
+    private @NotNull GenericResult result = GenericResult.allowed();
+
+    /**
+     * Used to create a new pre-send event.
+     *
+     * @param sender     The player that sent the message.
+     * @param channel    The channel the message was sent in.
+     * @param message    The message as the player typed it.
+     * @param component  The rendered message.
+     * @param recipients The players the message will be sent to.
+     */
+    public MineManiaChatPreSendEvent(@NotNull Player sender,
+                                     @NotNull ChatChannel channel,
+                                     @NotNull String message,
+                                     @NotNull Component component,
+                                     @NotNull Collection<Player> recipients) {
+
+        this.sender = sender;
+        this.channel = channel;
+        this.message = message;
+        this.component = component;
+        this.recipients = Collections.unmodifiableCollection(recipients);
+    }
+
+    public @NotNull Player getSender() {
+        return this.sender;
+    }
+
+    public @NotNull ChatChannel getChannel() {
+        return this.channel;
+    }
+
+    public @NotNull String getMessage() {
+        return this.message;
+    }
+
+    public @NotNull Component getComponent() {
+        return this.component;
+    }
+
+    /**
+     * Used to get the players the message will be sent to.
+     * Players ignoring the sender are already left out,
+     * and the list can not be changed.
+     *
+     * @return The recipients.
+     */
+    public @NotNull Collection<Player> getRecipients() {
+        return this.recipients;
+    }
+
+    @Override
+    public @NotNull GenericResult getResult() {
+        return this.result;
+    }
+
+    @Override
+    public void setResult(@NotNull GenericResult result) {
+        this.result = Objects.requireNonNull(result);
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Used to keep the banned words list and its compiled matcher.
+ * <p>
+ * Changes only update the list while holding the lock. Saving the
+ * banned words file and compiling a new matcher happen on a single
+ * background thread, and changes made close together are batched
+ * into one rebuild. The new matcher is then swapped in with a single
+ * volatile write, so chat keeps using the old matcher until the new
+ * one is ready and never stops filtering.
+ * <p>
+ * The compiled matcher is also saved to {@code bannedwords.bin}
+ * and loaded from there while the words have not changed,
+ * see {@link MatcherArtifact}.
+ * <p>
+ * Words under {@code masked-words} and the {@code watchlist} are compiled
+ * into the same matcher with their own {@link FilterAction}, so checking
+ * for watchlist terms costs nothing on top of the banned word scan.
+ * They are only edited through the file, the commands change {@code banned-words}.
+ */
+public class BannedWordList {
+
+    private static final long REBUILD_DELAY_MILLIS = 500;
+
+    private final @NotNull Configuration bannedWords;
+    private final @NotNull Path folder;
+    private final @NotNull MatcherArtifact artifact;
+
+    private final @NotNull Set<String> phrases = new LinkedHashSet<>();
+    private final @NotNull List<String> maskedPhrases = new ArrayList<>();
+    private final @NotNull List<String> watchlist = new ArrayList<>();
+    private final @NotNull List<String> patterns = new ArrayList<>();
+    private volatile @NotNull BannedWordMatcher matcher = BannedWordMatcher.compile(Set.of());
+
+    private final @NotNull ScheduledExecutorService compiler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MineManiaChat-banned-words");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private boolean rebuildScheduled;
+
+    /**
+     * Represents a copy of the lists taken to compile a matcher from.
+     */
+    private record Snapshot(@NotNull List<String> phrases,
+                            @NotNull List<String> maskedPhrases,
+                            @NotNull List<String> watchlist,
+                            @NotNull List<String> patterns) {
+    }
+
+    /**
+     * Used to create a new banned word list.
+     *
+     * @param bannedWords The banned words configuration file.
+     * @param folder      The folder files can be imported from.
+     */
+    public BannedWordList(@NotNull Configuration bannedWords, @NotNull Path folder) {
+        this.bannedWords = bannedWords;
+        this.folder = folder.toAbsolutePath().normalize();
+        this.artifact = new MatcherArtifact(this.folder.resolve("bannedwords.bin"));
+        this.load();
+    }
+
+    /**
+     * Used to read the banned words file again
+     * and compile a new matcher.
+     * Changes that are still waiting are saved first.
+     * This waits until the new matcher is in use.
+     */
+    public void load() {
+        try {
+            this.compiler.submit(() -> this.compile(this.read())).get();
+        } catch (ExecutionException exception) {
+            MineManiaChat.getInstance().getLogger().atError().setCause(exception.getCause())
+                    .log("Unable to load the banned words");
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized @NotNull Snapshot read() {
+        // A change still waiting for its rebuild would be lost when the
+        // list is cleared below, so it is saved to the file first.
+        if (this.rebuildScheduled) {
+            this.rebuildScheduled = false;
+            this.save(this.phrases);
+        }
+
+        this.bannedWords.load();
+        this.phrases.clear();
+
+        for (String phrase : this.bannedWords.getListString("banned-words", new ArrayList<>())) {
+            if (phrase != null && !phrase.isBlank()) this.phrases.add(phrase);
+        }
+
+        this.maskedPhrases.clear();
+        this.maskedPhrases.addAll(this.bannedWords.getListString("masked-words", new ArrayList<>()));
+
+        this.watchlist.clear();
+        this.watchlist.addAll(this.bannedWords.getListString("watchlist", new ArrayList<>()));
+
+        this.patterns.clear();
+        this.patterns.addAll(this.bannedWords.getListString("banned-patterns", new ArrayList<>()));
+
+        return this.snapshot();
+    }
+
+    /**
+     * Used to check if a message contains a phrase that blocks it.
+     *
+     * @param message The message as it was sent.
+     * @return True if a blocked phrase was found.
+     */
+    public boolean matches(@NotNull CharSequence message) {
+        return this.matcher.matches(MessageNormalizer.normalize(message));
+    }
+
+    /**
+     * Used to check a message for blocked, masked and alert phrases.
+     *
+     * @param message The message as it was sent.
+     * @return What was found, with masks relative to the message as it was sent.
+     */
+    public @NotNull FilterResult scan(@NotNull CharSequence message) {
+        return this.matcher.scan(MessageNormalizer.normalize(message));
+    }
+
+    /**
+     * Used to get the matcher currently in use.
+     *
+     * @return The compiled matcher.
+     */
+    public @NotNull BannedWordMatcher getMatcher() {
+        return this.matcher;
+    }
+
+    /**
+     * Used to check if a phrase is on the list as it was written.
+     *
+     * @param phrase The phrase.
+     * @return True if it is on the list.
+     */
+    public synchronized boolean contains(@NotNull String phrase) {
+        return this.phrases.contains(phrase);
+    }
+
+    /**
+     * Used to get a copy of the watchlist terms.
+     *
+     * @return The terms.
+     */
+    public synchronized @NotNull List<String> getWatchlist() {
+        return new ArrayList<>(this.watchlist);
+    }
+
+    /**
+     * Used to get a copy of the phrases on the list.
+     *
+     * @return The phrases.
+     */
+    public synchronized @NotNull Set<String> getPhrases() {
+        return new LinkedHashSet<>(this.phrases);
+    }
+
+    /**
+     * Used to add a phrase to the list.
+     *
+     * @param phrase The phrase to add.
+     * @return False if it was already on the list.
+     */
+    public synchronized boolean add(@NotNull String phrase) {
+        if (phrase.isBlank() || !this.phrases.add(phrase)) return false;
+
+        this.scheduleRebuild();
+        return true;
+    }
+
+    /**
+     * Used to remove a phrase from the list.
+     *
+     * @param phrase The phrase to remove.
+     * @return False if it was not on the list.
+     */
+    public synchronized boolean remove(@NotNull String phrase) {
+        if (!this.phrases.remove(phrase)) return false;
+
+        this.scheduleRebuild();
+        return true;
+    }
+
+    /**
+     * Used to add every line of a file to the list.
+     * The file is read a line at a time, blank lines and lines
+     * starting with # are skipped, and the list is only saved
+     * and compiled once afterwards.
+     *
+     * @param fileName The name of the file in the plugin folder.
+     * @return The number of new phrases that were added.
+     * @throws IOException If the file could not be read.
+     */
+    public synchronized int importFile(@NotNull String fileName) throws IOException {
+        Path file = this.folder.resolve(fileName).normalize();
+
+        if (!file.startsWith(this.folder)) {
+            throw new IOException("The file " + fileName + " is not inside the plugin folder");
+        }
+
+        int added = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String phrase = line.trim();
+                if (phrase.isEmpty() || phrase.startsWith("#")) continue;
+
+                if (this.phrases.add(phrase)) added++;
+            }
+        }
+
+        if (added > 0) this.scheduleRebuild();
+
+        return added;
+    }
+
+    /**
+     * Used to stop the background thread.
+     * Changes that are still waiting are saved first.
+     */
+    public void shutdown() {
+        this.compiler.shutdown();
+
+        try {
+            if (!this.compiler.awaitTermination(10, TimeUnit.SECONDS)) {
+                MineManiaChat.getInstance().getLogger().warn("Timed out saving the banned words");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (this.rebuildScheduled) return;
+
+        this.rebuildScheduled = true;
+        this.compiler.schedule(this::rebuild, REBUILD_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void rebuild() {
+        Snapshot snapshot;
+
+        synchronized (this) {
+            // Already saved by a reload.
+            if (!this.rebuildScheduled) return;
+
+            this.rebuildScheduled = false;
+            snapshot = this.snapshot();
+        }
+
+        this.save(snapshot.phrases());
+        this.compile(snapshot);
+    }
+
+    private void save(@NotNull Collection<String> phrases) {
+        this.bannedWords.set("banned-words", new ArrayList<>(phrases));
+        this.bannedWords.save();
+    }
+
+    private @NotNull Snapshot snapshot() {
+        return new Snapshot(
+                new ArrayList<>(this.phrases),
+                new ArrayList<>(this.maskedPhrases),
+                new ArrayList<>(this.watchlist),
+                new ArrayList<>(this.patterns)
+        );
+    }
+
+    private void compile(@NotNull Snapshot snapshot) {
+        Map<String, FilterAction> actions = new LinkedHashMap<>();
+        this.putAll(actions, snapshot.watchlist(), FilterAction.ALERT);
+        this.putAll(actions, snapshot.maskedPhrases(), FilterAction.MASK);
+        this.putAll(actions, snapshot.phrases(), FilterAction.BLOCK);
+
+        byte[] hash = MatcherArtifact.hash(actions, snapshot.patterns());
+
+        try {
+            BannedWordMatcher loaded = this.artifact.load(hash);
+
+            if (loaded != null) {
+                this.matcher = loaded;
+                return;
+            }
+        } catch (IOException exception) {
+            MineManiaChat.getInstance().getLogger().warn("Unable to load the compiled banned words, compiling them again: " + exception.getMessage());
+        }
+
+        try {
+            this.matcher = BannedWordMatcher.compile(actions, snapshot.patterns());
+        } catch (IllegalArgumentException exception) {
+            MineManiaChat.getInstance().getLogger().error("Unable to compile the banned patterns, only banned words will be used: " + exception.getMessage());
+            this.matcher = BannedWordMatcher.compile(actions, List.of());
+            return;
+        }
+
+        try {
+            this.artifact.save(hash, this.matcher);
+        } catch (IOException exception) {
+            MineManiaChat.getInstance().getLogger().warn("Unable to save the compiled banned words: " + exception.getMessage());
+        }
+    }
+
+    private void putAll(@NotNull Map<String, FilterAction> actions, @NotNull Iterable<String> phrases, @NotNull FilterAction action) {
+        for (String phrase : phrases) {
+            if (phrase == null || phrase.isBlank()) continue;
+
+            // Later lists are more severe, so they replace earlier ones.
+            actions.put(phrase, action);
+        }
+    }
+}
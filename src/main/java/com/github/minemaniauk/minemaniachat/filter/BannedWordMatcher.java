@@ -0,0 +1,479 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Used to check messages for banned phrases.
+ * <p>
+ * The phrases are compiled once into an Aho-Corasick automaton
+ * stored as a dense transition table, so checking a message reads
+ * each character once no matter how many phrases there are.
+ * <p>
+ * Messages are expected to already be normalised by the
+ * {@link MessageNormalizer}, and any character other than
+ * a-z, 0-9 and space is skipped. A phrase only matches as whole
+ * words, so it must have a space or the start of the message before
+ * it and a space or the end of the message after it. This is done
+ * by padding each phrase and the message with a space on both sides.
+ * <p>
+ * Banned patterns are compiled into a second automaton that is
+ * stepped in the same loop, see {@link PatternAutomaton}.
+ * <p>
+ * Each phrase has a {@link FilterAction}. {@link #scan(MessageNormalizer.NormalizedMessage)}
+ * reports where masked phrases are in the original message, using the
+ * length of the phrase that ended at each state and the offsets the
+ * normaliser kept, so the message never has to be searched again.
+ * Patterns always block.
+ */
+public final class BannedWordMatcher {
+
+    /**
+     * The number of characters the automaton understands,
+     * a-z, 0-9 and space.
+     */
+    static final int ALPHABET = 37;
+    static final int SPACE = 36;
+    static final int SKIP = -1;
+
+    private static final int ROOT = 0;
+    private static final byte[] SYMBOLS = new byte[128];
+
+    static {
+        Arrays.fill(SYMBOLS, (byte) SKIP);
+        for (char character = 'a'; character <= 'z'; character++) SYMBOLS[character] = (byte) (character - 'a');
+        for (char character = '0'; character <= '9'; character++) SYMBOLS[character] = (byte) (26 + character - '0');
+        SYMBOLS[' '] = SPACE;
+    }
+
+    private static final byte NO_ACTION = -1;
+    private static final FilterAction[] ACTIONS = FilterAction.values();
+
+    private final int[] transitions;
+    private final boolean[] accepting;
+    private final boolean[] blocking;
+    private final byte[] actions;
+    private final int[] lengths;
+    private final int[] outputLinks;
+    private final String[] terms;
+    private final int start;
+    private final int phraseCount;
+    private final @Nullable PatternAutomaton patterns;
+
+    private BannedWordMatcher(int[] transitions, boolean[] accepting, boolean[] blocking,
+                              byte[] actions, int[] lengths, int[] outputLinks, String[] terms,
+                              int phraseCount, @Nullable PatternAutomaton patterns) {
+        this.transitions = transitions;
+        this.accepting = accepting;
+        this.blocking = blocking;
+        this.actions = actions;
+        this.lengths = lengths;
+        this.outputLinks = outputLinks;
+        this.terms = terms;
+        this.phraseCount = phraseCount;
+        this.patterns = patterns;
+
+        // The message is padded with a space at the start,
+        // so scanning begins one step in from the root.
+        this.start = transitions[ROOT * ALPHABET + SPACE];
+    }
+
+    /**
+     * Used to compile a list of banned phrases.
+     * Phrases are normalised like messages before they are compiled.
+     *
+     * @param phrases The banned phrases.
+     * @return The compiled matcher.
+     */
+    public static @NotNull BannedWordMatcher compile(@NotNull Collection<String> phrases) {
+        return compile(phrases, List.of());
+    }
+
+    /**
+     * Used to compile a list of banned phrases and patterns.
+     * See {@link PatternAutomaton} for the pattern syntax.
+     *
+     * @param phrases  The banned phrases.
+     * @param patterns The banned patterns.
+     * @return The compiled matcher.
+     * @throws IllegalArgumentException If a pattern is invalid or
+     *                                  the patterns are too complex.
+     */
+    public static @NotNull BannedWordMatcher compile(@NotNull Collection<String> phrases, @NotNull Collection<String> patterns) {
+        Map<String, FilterAction> blocked = new LinkedHashMap<>();
+        for (String phrase : phrases) {
+            if (phrase != null) blocked.put(phrase, FilterAction.BLOCK);
+        }
+
+        return compile(blocked, patterns);
+    }
+
+    /**
+     * Used to compile banned phrases, each with their own action, and patterns.
+     * If the same phrase is given more than one action the most severe is used.
+     *
+     * @param phrases  The banned phrases and what to do when they are found.
+     * @param patterns The banned patterns.
+     * @return The compiled matcher.
+     * @throws IllegalArgumentException If a pattern is invalid or
+     *                                  the patterns are too complex.
+     */
+    public static @NotNull BannedWordMatcher compile(@NotNull Map<String, FilterAction> phrases, @NotNull Collection<String> patterns) {
+        PatternAutomaton patternAutomaton = patterns.isEmpty() ? null : PatternAutomaton.compile(patterns);
+
+        int[] goTo = new int[ALPHABET * 16];
+        Arrays.fill(goTo, -1);
+        byte[] actions = new byte[16];
+        Arrays.fill(actions, NO_ACTION);
+        int[] lengths = new int[16];
+        String[] terms = new String[16];
+        int states = 1;
+        int compiled = 0;
+
+        for (Map.Entry<String, FilterAction> entry : phrases.entrySet()) {
+            String phrase = entry.getKey();
+            if (phrase == null || phrase.isEmpty() || entry.getValue() == null) continue;
+
+            // Phrases are folded the same way as messages so "h3llo" and "hello" are the same phrase.
+            String normalized = MessageNormalizer.normalize(phrase).toString().trim();
+            if (normalized.isEmpty()) continue;
+
+            String padded = " " + normalized + " ";
+
+            int state = ROOT;
+            for (int index = 0; index < padded.length(); index++) {
+                int symbol = symbol(padded.charAt(index));
+                int slot = state * ALPHABET + symbol;
+
+                if (goTo[slot] == -1) {
+                    if (states * ALPHABET >= goTo.length) {
+                        int oldLength = goTo.length;
+                        goTo = Arrays.copyOf(goTo, oldLength * 2);
+                        Arrays.fill(goTo, oldLength, goTo.length, -1);
+                        int oldStates = actions.length;
+                        actions = Arrays.copyOf(actions, oldStates * 2);
+                        Arrays.fill(actions, oldStates, actions.length, NO_ACTION);
+                        lengths = Arrays.copyOf(lengths, oldStates * 2);
+                        terms = Arrays.copyOf(terms, oldStates * 2);
+                    }
+                    goTo[slot] = states++;
+                }
+
+                state = goTo[slot];
+            }
+
+            byte action = (byte) entry.getValue().ordinal();
+            if (action > actions[state]) {
+                actions[state] = action;
+                terms[state] = phrase;
+            }
+            lengths[state] = normalized.length();
+            compiled++;
+        }
+
+        actions = Arrays.copyOf(actions, states);
+        boolean[] accepting = new boolean[states];
+        boolean[] blocking = new boolean[states];
+        int[] outputLinks = new int[states];
+
+        int[] transitions = build(goTo, actions, accepting, blocking, outputLinks, states);
+        return new BannedWordMatcher(transitions, accepting, blocking, actions,
+                Arrays.copyOf(lengths, states), outputLinks, Arrays.copyOf(terms, states), compiled, patternAutomaton);
+    }
+
+    /**
+     * Used to turn the trie into a complete automaton by following
+     * failure links, breadth first, so every state has a transition
+     * for every character.
+     * <p>
+     * Each state is also linked to the next state along its failure
+     * links that ends a phrase, so every phrase ending at a position
+     * can be found without walking the whole failure chain.
+     */
+    private static int[] build(int[] goTo, byte[] actions, boolean[] accepting,
+                               boolean[] blocking, int[] outputLinks, int states) {
+
+        int[] transitions = Arrays.copyOf(goTo, states * ALPHABET);
+        int[] failure = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        outputLinks[ROOT] = -1;
+
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int next = transitions[ROOT * ALPHABET + symbol];
+
+            if (next == -1) {
+                transitions[ROOT * ALPHABET + symbol] = ROOT;
+                continue;
+            }
+
+            failure[next] = ROOT;
+            queue.add(next);
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+
+            // A state also matches if any phrase ending in its suffix does.
+            int fail = failure[state];
+            accepting[state] = actions[state] != NO_ACTION || accepting[fail];
+            blocking[state] = actions[state] == FilterAction.BLOCK.ordinal() || blocking[fail];
+            outputLinks[state] = actions[fail] != NO_ACTION ? fail : outputLinks[fail];
+
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int slot = state * ALPHABET + symbol;
+                int next = transitions[slot];
+                int fallback = transitions[failure[state] * ALPHABET + symbol];
+
+                if (next == -1) {
+                    transitions[slot] = fallback;
+                    continue;
+                }
+
+                failure[next] = fallback;
+                queue.add(next);
+            }
+        }
+
+        return transitions;
+    }
+
+    /**
+     * Used to check if a message contains a phrase that blocks it.
+     * Masked and alert phrases are ignored.
+     *
+     * @param message The normalised message to check.
+     * @return True if a blocked phrase was found.
+     */
+    public boolean matches(@NotNull CharSequence message) {
+        if (this.patterns != null) return this.matchesWithPatterns(message, this.patterns);
+        if (this.phraseCount == 0) return false;
+
+        int[] transitions = this.transitions;
+        boolean[] accepting = this.blocking;
+        int state = this.start;
+
+        for (int index = 0; index < message.length(); index++) {
+            int symbol = symbol(message.charAt(index));
+            if (symbol == SKIP) continue;
+
+            state = transitions[state * ALPHABET + symbol];
+            if (accepting[state]) return true;
+        }
+
+        // The message is padded with a space at the end.
+        return accepting[transitions[state * ALPHABET + SPACE]];
+    }
+
+    /**
+     * Used to run the phrase and pattern automatons
+     * side by side in a single pass over the message.
+     */
+    private boolean matchesWithPatterns(@NotNull CharSequence message, @NotNull PatternAutomaton patterns) {
+        int[] transitions = this.transitions;
+        boolean[] accepting = this.blocking;
+        int state = this.start;
+        int patternState = patterns.getStart();
+
+        for (int index = 0; index < message.length(); index++) {
+            int symbol = symbol(message.charAt(index));
+            if (symbol == SKIP) continue;
+
+            state = transitions[state * ALPHABET + symbol];
+            patternState = patterns.next(patternState, symbol);
+            if (accepting[state] || patterns.isAccepting(patternState)) return true;
+        }
+
+        return accepting[transitions[state * ALPHABET + SPACE]]
+                || patterns.isAccepting(patterns.next(patternState, SPACE));
+    }
+
+    /**
+     * Used to check a message for every action at once.
+     * A blocked phrase or pattern stops the scan straight away.
+     * Otherwise the spans of masked phrases are mapped back
+     * to the original message and alert phrases are noted.
+     *
+     * @param message The normalised message to check.
+     * @return What was found in the message.
+     */
+    public @NotNull FilterResult scan(@NotNull MessageNormalizer.NormalizedMessage message) {
+        if (this.phraseCount == 0 && this.patterns == null) return FilterResult.CLEAN;
+
+        PatternAutomaton patterns = this.patterns;
+        int[] transitions = this.transitions;
+        boolean[] accepting = this.accepting;
+        int state = this.start;
+        int patternState = patterns == null ? 0 : patterns.getStart();
+        int length = message.length();
+        FilterResult.Builder result = null;
+
+        // The last step is the space the message is padded with at the end.
+        for (int index = 0; index <= length; index++) {
+            int symbol = index == length ? SPACE : symbol(message.charAt(index));
+            if (symbol == SKIP) continue;
+
+            state = transitions[state * ALPHABET + symbol];
+
+            if (patterns != null) {
+                patternState = patterns.next(patternState, symbol);
+                if (patterns.isAccepting(patternState)) return FilterResult.BLOCKED;
+            }
+
+            if (!accepting[state]) continue;
+            if (this.blocking[state]) return FilterResult.BLOCKED;
+
+            if (result == null) result = new FilterResult.Builder();
+            this.collect(state, index, message, result);
+        }
+
+        return result == null ? FilterResult.CLEAN : result.build();
+    }
+
+    /**
+     * Used to record every phrase that ends at a position.
+     * The position is the space after the phrase, so the phrase
+     * itself is the characters just before it.
+     */
+    private void collect(int state, int index, @NotNull MessageNormalizer.NormalizedMessage message,
+                         @NotNull FilterResult.Builder result) {
+
+        for (int output = this.actions[state] != NO_ACTION ? state : this.outputLinks[state];
+             output != -1;
+             output = this.outputLinks[output]) {
+
+            if (ACTIONS[this.actions[output]] == FilterAction.ALERT) {
+                result.alert(this.terms[output]);
+                continue;
+            }
+
+            int first = index - this.lengths[output];
+            result.mask(message.getOriginalIndex(first), message.getOriginalIndex(index - 1) + 1);
+        }
+    }
+
+    /**
+     * Used to get the number of phrases that were compiled.
+     *
+     * @return The number of phrases.
+     */
+    public int getPhraseCount() {
+        return this.phraseCount;
+    }
+
+    /**
+     * Used to get the number of states in the phrase automaton.
+     *
+     * @return The number of states.
+     */
+    public int getStateCount() {
+        return this.accepting.length;
+    }
+
+    /**
+     * Used to get the number of states in the pattern automaton.
+     *
+     * @return The number of states, 0 if there are no patterns.
+     */
+    public int getPatternStateCount() {
+        return this.patterns == null ? 0 : this.patterns.getStateCount();
+    }
+
+    /**
+     * Used to write the compiled matcher for a {@link MatcherArtifact}.
+     *
+     * @param output The stream to write to.
+     * @throws IOException If the stream could not be written to.
+     */
+    void write(@NotNull DataOutputStream output) throws IOException {
+        output.writeInt(this.phraseCount);
+        MatcherArtifact.writeInts(output, this.transitions);
+        MatcherArtifact.writeBooleans(output, this.accepting);
+        MatcherArtifact.writeBooleans(output, this.blocking);
+        MatcherArtifact.writeBytes(output, this.actions);
+        MatcherArtifact.writeInts(output, this.lengths);
+        MatcherArtifact.writeInts(output, this.outputLinks);
+        MatcherArtifact.writeStrings(output, this.terms);
+
+        output.writeBoolean(this.patterns != null);
+        if (this.patterns != null) this.patterns.write(output);
+    }
+
+    /**
+     * Used to read a matcher written by {@link #write(DataOutputStream)}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The matcher.
+     */
+    static @NotNull BannedWordMatcher read(@NotNull ByteBuffer buffer) {
+        int phraseCount = buffer.getInt();
+        int[] transitions = MatcherArtifact.readInts(buffer);
+        boolean[] accepting = MatcherArtifact.readBooleans(buffer);
+        boolean[] blocking = MatcherArtifact.readBooleans(buffer);
+        byte[] actions = MatcherArtifact.readBytes(buffer);
+        int[] lengths = MatcherArtifact.readInts(buffer);
+        int[] outputLinks = MatcherArtifact.readInts(buffer);
+        String[] terms = MatcherArtifact.readStrings(buffer);
+        PatternAutomaton patterns = buffer.get() != 0 ? PatternAutomaton.read(buffer) : null;
+
+        int states = accepting.length;
+        MatcherArtifact.check(states > 0
+                && transitions.length == states * ALPHABET
+                && blocking.length == states
+                && actions.length == states
+                && lengths.length == states
+                && outputLinks.length == states
+                && terms.length == states);
+        MatcherArtifact.checkTransitions(transitions, states);
+
+        for (int state = 0; state < states; state++) {
+            MatcherArtifact.check(actions[state] >= NO_ACTION && actions[state] < ACTIONS.length);
+            MatcherArtifact.check(outputLinks[state] >= -1 && outputLinks[state] < states);
+            MatcherArtifact.check(lengths[state] >= 0);
+        }
+
+        return new BannedWordMatcher(transitions, accepting, blocking, actions,
+                lengths, outputLinks, terms, phraseCount, patterns);
+    }
+
+    /**
+     * Used to get the symbol of a normalised character.
+     *
+     * @param character The character.
+     * @return The symbol, or {@link #SKIP} if the character is not understood.
+     */
+    static int symbol(char character) {
+        if (character >= SYMBOLS.length) return SKIP;
+        return SYMBOLS[character];
+    }
+}
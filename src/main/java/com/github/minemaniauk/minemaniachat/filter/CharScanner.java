@@ -0,0 +1,82 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Used to run the normalising loop of the {@link MessageNormalizer}.
+ * <p>
+ * There is a plain implementation and one that uses the incubating
+ * vector API to handle runs of plain letters and spaces many characters
+ * at a time. The vector one lives in {@code src/vector} and is only
+ * compiled into the jar with the {@code vector} maven profile, so the
+ * default build never touches the incubator module. It is only picked
+ * when it was built in and the proxy was started with
+ * {@code --add-modules jdk.incubator.vector}, and it can be turned off
+ * with {@code -Dminemaniachat.vector=false}.
+ */
+interface CharScanner {
+
+    /**
+     * Used to normalise characters into a buffer and count
+     * the {@link ContentStats} of the message in the same pass.
+     * The target arrays must be at least as long as the source.
+     *
+     * @param source  The characters of the message.
+     * @param length  The number of characters to read.
+     * @param table   The normalised form of every char, or 0 if it is dropped.
+     * @param classes The {@link ContentStats} class bits of every char.
+     * @param target  The array to write the normalised characters to.
+     * @param offsets The array to write where each character came from.
+     * @param stats   The array to write the counts to, indexed like {@link ContentStats#LETTERS}.
+     * @return The number of characters written.
+     */
+    int normalize(char[] source, int length, char[] table, byte[] classes, char[] target, int[] offsets, int[] stats);
+
+    /**
+     * Used to get the name of the implementation, for the log.
+     *
+     * @return The name.
+     */
+    @NotNull String getName();
+
+    /**
+     * Used to pick the fastest implementation this proxy can run.
+     *
+     * @return The character scanner.
+     */
+    static @NotNull CharScanner create() {
+        if (!Boolean.parseBoolean(System.getProperty("minemaniachat.vector", "true"))) return new ScalarCharScanner();
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return new ScalarCharScanner();
+
+        try {
+            // Loaded by name as it is only in the jar when built with the vector profile.
+            return (CharScanner) Class.forName(CharScanner.class.getPackageName() + ".VectorCharScanner")
+                    .getDeclaredConstructor()
+                    .newInstance();
+
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException exception) {
+            return new ScalarCharScanner();
+        }
+    }
+}
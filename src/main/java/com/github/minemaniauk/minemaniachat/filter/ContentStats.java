@@ -0,0 +1,83 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+/**
+ * Represents what a message is made of, for the caps,
+ * flood, zalgo and length filters.
+ * <p>
+ * These are counted by the {@link CharScanner} in the same pass that
+ * normalises the message for the banned word matcher, so none of
+ * the content filters need to read the message again.
+ *
+ * @param length         The number of characters in the message as it was sent.
+ * @param letters        The number of letters.
+ * @param uppercase      The number of upper case letters.
+ * @param longestRun     The most times a character is repeated in a row, not counting spaces.
+ * @param combiningMarks The number of combining marks, like accents stacked on a letter.
+ * @param longestMarkRun The most combining marks in a row, which is how zalgo text is made.
+ */
+public record ContentStats(int length, int letters, int uppercase, int longestRun, int combiningMarks, int longestMarkRun) {
+
+    // Where each count is kept while the scanner fills them in.
+    static final int LETTERS = 0;
+    static final int UPPERCASE = 1;
+    static final int LONGEST_RUN = 2;
+    static final int COMBINING_MARKS = 3;
+    static final int LONGEST_MARK_RUN = 4;
+    static final int SIZE = 5;
+
+    // The bits of the character classes table.
+    static final byte LETTER = 1;
+    static final byte UPPER = 2;
+    static final byte MARK = 4;
+    static final byte SPACE = 8;
+
+    /**
+     * Used to get how much of the message is capital letters.
+     *
+     * @return The percentage of letters that are upper case, from 0 to 100.
+     */
+    public double getCapsPercent() {
+        return this.letters == 0 ? 0 : this.uppercase * 100.0 / this.letters;
+    }
+
+    /**
+     * Used to work out the class bits of a character
+     * while the classes table is being built.
+     *
+     * @param character The character.
+     * @return The class bits.
+     */
+    static byte classify(char character) {
+        byte classes = 0;
+        int type = Character.getType(character);
+
+        if (Character.isLetter(character)) classes |= LETTER;
+        if (Character.isUpperCase(character)) classes |= UPPER;
+        if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK) classes |= MARK;
+        if (Character.isWhitespace(character) || Character.isSpaceChar(character)) classes |= SPACE;
+
+        return classes;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Used to decide which links are allowed in chat.
+ * <p>
+ * Allowed and blocked domains are stored in a trie keyed by
+ * their labels in reverse, so {@code store.example.com} is stored
+ * under {@code com}, then {@code example}, then {@code store}.
+ * Checking a host walks the trie from its last label, which takes
+ * one step per label, and the deepest domain on the list decides.
+ * An entry covers its subdomains, so a blocked subdomain
+ * can still be listed under an allowed domain.
+ * <p>
+ * An allowed entry can also have a path, such as
+ * {@code discord.gg/minemania}, to only allow links starting with it.
+ * <p>
+ * The policy never changes once it is created.
+ * It is replaced along with the chat handler on reload.
+ */
+public final class DomainPolicy {
+
+    /**
+     * Represents what happens to a link,
+     * declared from least to most severe.
+     */
+    public enum Action {
+
+        /**
+         * The link is on the allowed list, or there are no links.
+         */
+        ALLOWED,
+
+        /**
+         * The link is on neither list and
+         * needs the {@code chat.bypass.filter.url} permission.
+         */
+        UNLISTED,
+
+        /**
+         * The link is on the blocked list and is never allowed.
+         */
+        DENIED
+    }
+
+    private static final class Node {
+
+        private final @NotNull Map<String, Node> children = new HashMap<>(4);
+        private @Nullable Action action;
+        private @Nullable List<String> allowedPaths;
+    }
+
+    private final @NotNull Node root = new Node();
+
+    /**
+     * Used to create a new domain policy.
+     *
+     * @param configuration The configuration containing the url-filter section.
+     */
+    public DomainPolicy(@NotNull Configuration configuration) {
+        for (String entry : configuration.getListString("url-filter.allowed", new ArrayList<>())) {
+            this.add(entry, Action.ALLOWED);
+        }
+
+        // Blocked entries are added last so they win over an allowed entry for the same domain.
+        for (String entry : configuration.getListString("url-filter.blocked", new ArrayList<>())) {
+            this.add(entry, Action.DENIED);
+        }
+    }
+
+    private void add(@Nullable String entry, @NotNull Action action) {
+        if (entry == null || entry.isBlank()) return;
+
+        String value = entry.trim().toLowerCase(Locale.ROOT);
+        int scheme = value.indexOf("://");
+        if (scheme >= 0) value = value.substring(scheme + 3);
+        if (value.startsWith("www.")) value = value.substring(4);
+
+        int slash = value.indexOf('/');
+        String host = slash < 0 ? value : value.substring(0, slash);
+        String path = slash < 0 ? null : value.substring(slash);
+
+        Node node = this.root;
+        String[] labels = host.split("\\.");
+
+        for (int index = labels.length - 1; index >= 0; index--) {
+            if (labels[index].isEmpty()) continue;
+            node = node.children.computeIfAbsent(labels[index], label -> new Node());
+        }
+
+        if (node == this.root) return;
+
+        if (path != null && action == Action.ALLOWED) {
+            if (node.allowedPaths == null) node.allowedPaths = new ArrayList<>(2);
+            node.allowedPaths.add(path);
+            return;
+        }
+
+        node.action = action;
+    }
+
+    /**
+     * Used to check every link in a message.
+     *
+     * @param message The message as it was sent.
+     * @return The most severe action of any link in the message.
+     */
+    public @NotNull Action check(@NotNull String message) {
+        if (!UrlScanner.contains(message)) return Action.ALLOWED;
+
+        Action result = Action.ALLOWED;
+
+        for (UrlScanner.Match match : UrlScanner.find(message)) {
+            Action action = this.check(message, match);
+            if (action.compareTo(result) > 0) result = action;
+            if (result == Action.DENIED) break;
+        }
+
+        return result;
+    }
+
+    /**
+     * Used to check a single link.
+     *
+     * @param message The message the link is in.
+     * @param match   The link.
+     * @return What happens to the link.
+     */
+    public @NotNull Action check(@NotNull String message, @NotNull UrlScanner.Match match) {
+        String host = match.host();
+        Node node = this.root;
+        Action result = Action.UNLISTED;
+        int labelEnd = host.length();
+
+        for (int index = host.length() - 1; index >= -1; index--) {
+            if (index >= 0 && host.charAt(index) != '.') continue;
+
+            String label = host.substring(index + 1, labelEnd);
+            labelEnd = index;
+
+            node = node.children.get(label);
+            if (node == null) break;
+
+            if (node.action != null) result = node.action;
+            if (node.allowedPaths != null && result != Action.DENIED
+                    && hasAllowedPath(message, match, node.allowedPaths)) result = Action.ALLOWED;
+        }
+
+        return result;
+    }
+
+    private static boolean hasAllowedPath(@NotNull String message, @NotNull UrlScanner.Match match, @NotNull List<String> paths) {
+        for (String path : paths) {
+            int end = match.hostEnd() + path.length();
+            if (end > match.end() || !message.regionMatches(true, match.hostEnd(), path, 0, path.length())) continue;
+
+            // Stop "/minemania" from allowing "/minemaniafake".
+            if (end == match.end() || path.endsWith("/") || "/?#".indexOf(message.charAt(end)) >= 0) return true;
+        }
+
+        return false;
+    }
+}
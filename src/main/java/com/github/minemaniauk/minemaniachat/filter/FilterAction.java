@@ -0,0 +1,44 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+/**
+ * Represents what happens when a banned phrase is found.
+ * Declared from least to most severe.
+ */
+public enum FilterAction {
+
+    /**
+     * The message is sent and staff are alerted.
+     */
+    ALERT,
+
+    /**
+     * The message is sent with the phrase replaced by stars.
+     */
+    MASK,
+
+    /**
+     * The message is not sent.
+     */
+    BLOCK
+}
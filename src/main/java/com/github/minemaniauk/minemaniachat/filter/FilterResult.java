@@ -0,0 +1,156 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents what the banned word filter found in a message.
+ * <p>
+ * Masked phrases are kept as spans of the original message,
+ * so the message can be masked without being scanned again.
+ */
+public final class FilterResult {
+
+    /**
+     * The result for a message with nothing in it.
+     */
+    public static final @NotNull FilterResult CLEAN = new FilterResult(false, List.of(), new int[0], 0);
+
+    /**
+     * The result for a message that should not be sent.
+     */
+    public static final @NotNull FilterResult BLOCKED = new FilterResult(true, List.of(), new int[0], 0);
+
+    private final boolean blocked;
+    private final @NotNull List<String> alerts;
+    private final int[] spans;
+    private final int spanCount;
+
+    FilterResult(boolean blocked, @NotNull List<String> alerts, int[] spans, int spanCount) {
+        this.blocked = blocked;
+        this.alerts = alerts;
+        this.spans = spans;
+        this.spanCount = spanCount;
+    }
+
+    /**
+     * Used to check if the message should not be sent.
+     *
+     * @return True if a blocked phrase was found.
+     */
+    public boolean isBlocked() {
+        return this.blocked;
+    }
+
+    /**
+     * Used to check if staff should be alerted about the message.
+     *
+     * @return True if a watchlist term was found.
+     */
+    public boolean isAlerted() {
+        return !this.alerts.isEmpty();
+    }
+
+    /**
+     * Used to get the watchlist terms that were found,
+     * as they are written in the watchlist.
+     *
+     * @return The terms, each listed once.
+     */
+    public @NotNull List<String> getAlerts() {
+        return this.alerts;
+    }
+
+    /**
+     * Used to check if any part of the message should be masked.
+     *
+     * @return True if a masked phrase was found.
+     */
+    public boolean hasMasks() {
+        return this.spanCount > 0;
+    }
+
+    /**
+     * Used to replace the masked phrases in a message with stars.
+     * Spaces inside a phrase are left alone.
+     *
+     * @param message The original message the result is for.
+     * @return The masked message, or the same message if nothing is masked.
+     */
+    public @NotNull String mask(@NotNull String message) {
+        if (this.spanCount == 0) return message;
+
+        char[] characters = message.toCharArray();
+
+        for (int index = 0; index < this.spanCount; index++) {
+            int start = this.spans[index * 2];
+            int end = Math.min(this.spans[index * 2 + 1], characters.length);
+
+            for (int position = start; position < end; position++) {
+                if (characters[position] != ' ') characters[position] = '*';
+            }
+        }
+
+        return new String(characters);
+    }
+
+    /**
+     * Used to collect the result while a message is scanned.
+     * Nothing is allocated until something is found.
+     */
+    static final class Builder {
+
+        private List<String> alerts;
+        private int[] spans;
+        private int spanCount;
+
+        void alert(@NotNull String term) {
+            if (this.alerts == null) this.alerts = new ArrayList<>(2);
+            if (!this.alerts.contains(term)) this.alerts.add(term);
+        }
+
+        void mask(int start, int end) {
+            if (this.spans == null) this.spans = new int[8];
+            if (this.spanCount * 2 + 2 > this.spans.length) this.spans = Arrays.copyOf(this.spans, this.spans.length * 2);
+
+            this.spans[this.spanCount * 2] = start;
+            this.spans[this.spanCount * 2 + 1] = end;
+            this.spanCount++;
+        }
+
+        @NotNull FilterResult build() {
+            if (this.alerts == null && this.spanCount == 0) return CLEAN;
+
+            return new FilterResult(
+                    false,
+                    this.alerts == null ? List.of() : List.copyOf(this.alerts),
+                    this.spans == null ? new int[0] : this.spans,
+                    this.spanCount
+            );
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Used to store a compiled {@link BannedWordMatcher} in a file,
+ * so a large banned words list does not have to be compiled
+ * again every time the plugin starts or reloads.
+ * <p>
+ * The file starts with a version and a SHA-256 hash of everything the
+ * matcher was compiled from, including the normaliser table. When the
+ * hash still matches, the file is memory mapped and its tables are
+ * copied straight out of the mapping. Otherwise the matcher is compiled
+ * as normal and the file is replaced.
+ */
+final class MatcherArtifact {
+
+    /**
+     * "MMCF", MineMania compiled filter.
+     */
+    private static final int MAGIC = 0x4D4D4346;
+
+    /**
+     * Must be changed whenever the layout of the file
+     * or the meaning of the compiled tables changes.
+     */
+    private static final int VERSION = 1;
+
+    private static final int HASH_LENGTH = 32;
+
+    private final @NotNull Path file;
+
+    /**
+     * Used to create a new matcher artifact.
+     *
+     * @param file The file the matcher is stored in.
+     */
+    MatcherArtifact(@NotNull Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Used to work out the hash the artifact is keyed by.
+     *
+     * @param phrases  The phrases and their actions, in the order they are compiled.
+     * @param patterns The patterns.
+     * @return The SHA-256 hash.
+     */
+    static byte[] hash(@NotNull Map<String, FilterAction> phrases, @NotNull Collection<String> patterns) {
+        MessageDigest digest = createDigest();
+        digest.update((byte) VERSION);
+        MessageNormalizer.digestTable(digest);
+
+        for (Map.Entry<String, FilterAction> entry : phrases.entrySet()) {
+            digest.update((byte) entry.getValue().ordinal());
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+
+        // Keeps a phrase and a pattern with the same text apart.
+        digest.update((byte) -1);
+
+        for (String pattern : patterns) {
+            digest.update(pattern.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+
+        return digest.digest();
+    }
+
+    /**
+     * Used to load the matcher if the file was compiled from the same source.
+     *
+     * @param hash The hash of the source, see {@link #hash(Map, Collection)}.
+     * @return The matcher, or null if there is no file or it is out of date.
+     * @throws IOException If the file could not be read or is damaged.
+     */
+    @Nullable BannedWordMatcher load(byte[] hash) throws IOException {
+        if (!Files.isRegularFile(this.file)) return null;
+
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+            if (channel.size() < 8 + HASH_LENGTH) return null;
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+
+            byte[] stored = new byte[HASH_LENGTH];
+            buffer.get(stored);
+            if (!MessageDigest.isEqual(stored, hash)) return null;
+
+            return BannedWordMatcher.read(buffer);
+
+        } catch (BufferUnderflowException | IllegalStateException | IndexOutOfBoundsException exception) {
+            throw new IOException("The compiled banned words file " + this.file.getFileName() + " is damaged", exception);
+        }
+    }
+
+    /**
+     * Used to save a matcher to the file.
+     * The file is written next to the old one and then moved
+     * over it, so a crash never leaves a half written file.
+     *
+     * @param hash    The hash of the source, see {@link #hash(Map, Collection)}.
+     * @param matcher The compiled matcher.
+     * @throws IOException If the file could not be written.
+     */
+    void save(byte[] hash, @NotNull BannedWordMatcher matcher) throws IOException {
+        Path temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.write(hash);
+            matcher.write(output);
+        }
+
+        try {
+            Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static @NotNull MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            // Every java runtime is required to support SHA-256.
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Used to stop reading when the file does not make sense.
+     *
+     * @param condition The condition that must be true.
+     */
+    static void check(boolean condition) {
+        if (!condition) throw new IllegalStateException("Invalid compiled matcher");
+    }
+
+    static void writeInts(@NotNull DataOutputStream output, int[] values) throws IOException {
+        output.writeInt(values.length);
+        for (int value : values) output.writeInt(value);
+    }
+
+    static int[] readInts(@NotNull ByteBuffer buffer) {
+        int length = buffer.getInt();
+        check(length >= 0 && length * 4L <= buffer.remaining());
+
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * 4);
+        return values;
+    }
+
+    static void writeBytes(@NotNull DataOutputStream output, byte[] values) throws IOException {
+        output.writeInt(values.length);
+        output.write(values);
+    }
+
+    static byte[] readBytes(@NotNull ByteBuffer buffer) {
+        int length = buffer.getInt();
+        check(length >= 0 && length <= buffer.remaining());
+
+        byte[] values = new byte[length];
+        buffer.get(values);
+        return values;
+    }
+
+    static void writeBooleans(@NotNull DataOutputStream output, boolean[] values) throws IOException {
+        output.writeInt(values.length);
+        for (boolean value : values) output.writeBoolean(value);
+    }
+
+    static boolean[] readBooleans(@NotNull ByteBuffer buffer) {
+        byte[] bytes = readBytes(buffer);
+        boolean[] values = new boolean[bytes.length];
+
+        for (int index = 0; index < bytes.length; index++) {
+            values[index] = bytes[index] != 0;
+        }
+
+        return values;
+    }
+
+    static void writeStrings(@NotNull DataOutputStream output, String[] values) throws IOException {
+        output.writeInt(values.length);
+
+        for (String value : values) {
+            if (value == null) {
+                output.writeInt(-1);
+                continue;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    static String[] readStrings(@NotNull ByteBuffer buffer) {
+        int length = buffer.getInt();
+        check(length >= 0 && length * 4L <= buffer.remaining());
+
+        String[] values = new String[length];
+        for (int index = 0; index < length; index++) {
+            int size = buffer.getInt();
+            if (size == -1) continue;
+
+            check(size >= 0 && size <= buffer.remaining());
+            byte[] bytes = new byte[size];
+            buffer.get(bytes);
+            values[index] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        return values;
+    }
+
+    /**
+     * Used to check every transition of a table leads to a real state.
+     *
+     * @param transitions The transition table.
+     * @param states      The number of states.
+     */
+    static void checkTransitions(int[] transitions, int states) {
+        for (int target : transitions) {
+            check(target >= 0 && target < states);
+        }
+    }
+}
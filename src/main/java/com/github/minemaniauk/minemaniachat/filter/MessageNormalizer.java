@@ -0,0 +1,280 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.security.MessageDigest;
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * Used to put a message into the form the filters match against.
+ * <p>
+ * Every character is folded to a-z, 0-9 or space, or dropped.
+ * Letters are lower cased, accents are removed, look-alike letters
+ * from other scripts and common leetspeak such as {@code @} and
+ * {@code 0} are turned into the letter they stand for, and invisible
+ * characters like zero-width spaces are dropped.
+ * <p>
+ * All of this is worked out once per character when the class loads
+ * and stored in a table, so a message is still normalised in a single
+ * pass with one lookup per character and no regular expressions or
+ * strings created. The result is written into a buffer that belongs to the
+ * calling thread and is handed back as a {@link CharSequence}, so
+ * normalising a message allocates nothing once the buffer is big enough.
+ * <p>
+ * The loop itself is run by a {@link CharScanner}, which uses the
+ * vector API when the proxy allows it. The same loop counts the
+ * {@link ContentStats} of the message, so the content filters
+ * never need a pass of their own.
+ */
+public final class MessageNormalizer {
+
+    /**
+     * The normalised form of every char, or 0 if it is dropped.
+     */
+    private static final char[] TABLE = new char[Character.MAX_VALUE + 1];
+
+    /**
+     * The {@link ContentStats} class bits of every char.
+     */
+    private static final byte[] CLASSES = new byte[Character.MAX_VALUE + 1];
+
+    /**
+     * Characters from other scripts that look like a latin letter,
+     * as pairs of the character followed by the letter.
+     */
+    private static final String CONFUSABLES =
+            // Cyrillic
+            "аaвbеeёeкkмmнhоoрpсcтtуyхxіiїiјjѕsԁdһhӏlԛqԝwүyгrпnьbщwшw"
+            // Greek
+            + "αaβbεeηnιiκkνvοoρpτtυuχxωwγyμuςsσoδdθo"
+            // Latin letters that do not decompose
+            + "ıiłløođdħhŧtƀbɡgƒfʂsȿsɑaɩiʟlɴnʀrʏy";
+
+    /**
+     * Common leetspeak substitutions,
+     * as pairs of the character followed by the letter.
+     */
+    private static final String LEETSPEAK = "@a4a8b3e6g9g1i0o5s$s7t";
+
+    private static final ThreadLocal<NormalizedMessage> BUFFER = ThreadLocal.withInitial(NormalizedMessage::new);
+    private static final CharScanner SCANNER = CharScanner.create();
+
+    static {
+        char[] substitutions = new char[Character.MAX_VALUE + 1];
+        addPairs(substitutions, CONFUSABLES);
+        addPairs(substitutions, LEETSPEAK);
+
+        for (int character = 0; character <= Character.MAX_VALUE; character++) {
+            TABLE[character] = fold((char) character, substitutions);
+            CLASSES[character] = ContentStats.classify((char) character);
+        }
+    }
+
+    private MessageNormalizer() {
+    }
+
+    /**
+     * Used to normalise a message.
+     * <p>
+     * The returned message is reused by the next call on the same
+     * thread, so it must be used straight away and not stored.
+     *
+     * @param message The message to normalise.
+     * @return A view of the normalised message.
+     */
+    public static @NotNull NormalizedMessage normalize(@NotNull CharSequence message) {
+        NormalizedMessage buffer = BUFFER.get();
+        int length = message.length();
+        buffer.ensureCapacity(length);
+
+        char[] source = buffer.source;
+        if (message instanceof String string) {
+            string.getChars(0, length, source, 0);
+        } else {
+            for (int index = 0; index < length; index++) source[index] = message.charAt(index);
+        }
+
+        buffer.sourceLength = length;
+        buffer.length = SCANNER.normalize(source, length, TABLE, CLASSES, buffer.characters, buffer.offsets, buffer.stats);
+        return buffer;
+    }
+
+    /**
+     * Used to get the name of the character scanner in use,
+     * so it can be shown when the plugin starts.
+     *
+     * @return The name of the scanner.
+     */
+    public static @NotNull String getScannerName() {
+        return SCANNER.getName();
+    }
+
+    /**
+     * Used to get the normalised form of a single character.
+     *
+     * @param character The character.
+     * @return The normalised character, or 0 if it is dropped.
+     */
+    public static char normalize(char character) {
+        return TABLE[character];
+    }
+
+    /**
+     * Used to add the lookup table to a digest, so anything compiled
+     * from normalised phrases can tell when the folding rules change.
+     *
+     * @param digest The digest to update.
+     */
+    static void digestTable(@NotNull MessageDigest digest) {
+        byte[] bytes = new byte[TABLE.length * 2];
+
+        for (int index = 0; index < TABLE.length; index++) {
+            bytes[index * 2] = (byte) (TABLE[index] >> 8);
+            bytes[index * 2 + 1] = (byte) TABLE[index];
+        }
+
+        digest.update(bytes);
+    }
+
+    private static void addPairs(char[] substitutions, @NotNull String pairs) {
+        for (int index = 0; index + 1 < pairs.length(); index += 2) {
+            substitutions[pairs.charAt(index)] = pairs.charAt(index + 1);
+        }
+    }
+
+    /**
+     * Used to work out the normalised form of a character
+     * while the table is being built.
+     *
+     * @param character     The character.
+     * @param substitutions The look-alike and leetspeak substitutions.
+     * @return The normalised character, or 0 if it is dropped.
+     */
+    private static char fold(char character, char[] substitutions) {
+        char lower = Character.toLowerCase(character);
+
+        if (substitutions[lower] != 0) return substitutions[lower];
+        if (isKept(lower)) return lower;
+
+        // Characters that are a dressed up form of another, like accented
+        // letters, full width letters and non-breaking spaces, are decomposed.
+        String decomposed = Normalizer.normalize(String.valueOf(character), Normalizer.Form.NFKD);
+        char base = 0;
+
+        for (int index = 0; index < decomposed.length(); index++) {
+            char part = decomposed.charAt(index);
+            if (Character.getType(part) == Character.NON_SPACING_MARK) continue;
+
+            // Only fold characters that decompose into a single letter.
+            if (base != 0) return 0;
+            base = Character.toLowerCase(part);
+        }
+
+        if (base == 0) return 0;
+        if (substitutions[base] != 0) return substitutions[base];
+        if (isKept(base)) return base;
+        return 0;
+    }
+
+    private static boolean isKept(char character) {
+        return (character >= 'a' && character <= 'z') || (character >= '0' && character <= '9') || character == ' ';
+    }
+
+    /**
+     * A normalised message held in a growable buffer.
+     * It remembers where each of its characters came
+     * from in the original message.
+     */
+    public static final class NormalizedMessage implements CharSequence {
+
+        private char[] source = new char[256];
+        private char[] characters = new char[256];
+        private int[] offsets = new int[256];
+        private final int[] stats = new int[ContentStats.SIZE];
+        private int length;
+        private int sourceLength;
+
+        private NormalizedMessage() {
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > this.characters.length) {
+                int size = Math.max(capacity, this.characters.length * 2);
+                this.source = new char[size];
+                this.characters = Arrays.copyOf(this.characters, size);
+                this.offsets = Arrays.copyOf(this.offsets, size);
+            }
+        }
+
+        /**
+         * Used to get where a character was in the original message.
+         *
+         * @param index The index in the normalised message.
+         * @return The index in the original message.
+         */
+        public int getOriginalIndex(int index) {
+            if (index < 0 || index >= this.length) throw new IndexOutOfBoundsException(index);
+            return this.offsets[index];
+        }
+
+        /**
+         * Used to get the content stats counted
+         * while the message was normalised.
+         *
+         * @return The content stats.
+         */
+        public @NotNull ContentStats getContentStats() {
+            return new ContentStats(
+                    this.sourceLength,
+                    this.stats[ContentStats.LETTERS],
+                    this.stats[ContentStats.UPPERCASE],
+                    this.stats[ContentStats.LONGEST_RUN],
+                    this.stats[ContentStats.COMBINING_MARKS],
+                    this.stats[ContentStats.LONGEST_MARK_RUN]
+            );
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= this.length) throw new IndexOutOfBoundsException(index);
+            return this.characters[index];
+        }
+
+        @Override
+        public @NotNull CharSequence subSequence(int start, int end) {
+            return new String(this.characters, start, end - start);
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return new String(this.characters, 0, this.length);
+        }
+    }
+}
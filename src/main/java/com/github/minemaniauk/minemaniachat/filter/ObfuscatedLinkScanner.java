@@ -0,0 +1,304 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Used to find links written to get past the link filter,
+ * like {@code play . server . net}, {@code server(dot)net}
+ * or {@code server [.] net}.
+ * <p>
+ * The message is read once as a stream of tokens: labels, dot
+ * substitutes and spaces. A small state machine joins labels
+ * separated by a dot substitute into a host name and checks the last
+ * label against the same top level domain trie the {@link UrlScanner}
+ * uses, so the cost stays linear in the length of the message and
+ * no regular expression is needed for each way of writing a dot.
+ * <p>
+ * Labels are read through the {@link MessageNormalizer} table, so look-alike
+ * letters are folded and invisible characters are skipped. Digits are kept
+ * as they are, so version numbers like {@code 1.20} are never read as words.
+ * <p>
+ * Hosts written with only plain dots are left to the {@link UrlScanner}.
+ * A dot followed by a space is taken as the end of a sentence. To keep
+ * normal chat like {@code gg . gg} or {@code the dot net framework} out,
+ * a link needs a second level label of at least two characters, two words
+ * joined by a single spaced or spelled out dot are never a link, and a host
+ * ending in a common word like {@code .me} needs at least three labels with
+ * a bracketed or look-alike dot before the common word.
+ */
+final class ObfuscatedLinkScanner {
+
+    /**
+     * The most characters a bracketed dot like {@code ( dot )} can span.
+     */
+    private static final int MAX_BRACKET_LENGTH = 9;
+
+    /**
+     * The fewest characters the label before the top level domain can have.
+     */
+    private static final int MIN_SECOND_LEVEL_LENGTH = 2;
+
+    private static final ThreadLocal<StringBuilder> HOST = ThreadLocal.withInitial(StringBuilder::new);
+
+    private ObfuscatedLinkScanner() {
+    }
+
+    /**
+     * Used to scan a message for obfuscated links.
+     *
+     * @param message The message as it was sent.
+     * @param matches The list to add links to, or null to stop at the first link.
+     * @return True if a link was found.
+     */
+    static boolean scan(@NotNull CharSequence message, @Nullable List<UrlScanner.Match> matches) {
+        StringBuilder host = HOST.get();
+        host.setLength(0);
+
+        int length = message.length();
+        int index = 0;
+        boolean found = false;
+
+        // The host being read.
+        int hostStart = -1;
+        int labels = 0;
+        int lastLabel = 0;
+        int previousLabelLength = 0;
+        boolean obfuscated = false;
+        boolean strong = false;
+        boolean loose = false;
+
+        // The separator after the last label, if there is one.
+        boolean separated = false;
+        boolean plainDot = false;
+        boolean singleDot = false;
+        boolean dotWord = false;
+        boolean spaceBefore = false;
+        boolean space = false;
+
+        // The longest part of the host so far that ends in a top level domain.
+        int bestEnd = -1;
+        int bestLength = 0;
+
+        while (index <= length) {
+            char character = index < length ? message.charAt(index) : 0;
+
+            if (index < length && Character.isWhitespace(character)) {
+                space = true;
+                index++;
+                continue;
+            }
+
+            if (index < length && Character.getType(character) == Character.FORMAT) {
+                index++;
+                continue;
+            }
+
+            int dotEnd = index < length ? matchDot(message, index) : -1;
+            if (dotEnd >= 0 && labels > 0 && !separated) {
+                separated = true;
+                singleDot = dotEnd == index + 1;
+                plainDot = singleDot && character == '.';
+                dotWord = character == 'd' || character == 'D';
+                spaceBefore = space;
+                space = false;
+                index = dotEnd;
+                continue;
+            }
+
+            int labelEnd = dotEnd < 0 && index < length ? readLabel(message, index) : index;
+            boolean continues = labelEnd > index && separated
+                    && !(plainDot && !spaceBefore && space);
+
+            if (!continues) {
+                // The host has ended, so keep the longest link found in it.
+                if (bestEnd >= 0) {
+                    found = true;
+                    if (matches == null) return true;
+                    matches.add(new UrlScanner.Match(hostStart, bestEnd, bestEnd, host.substring(0, bestLength)));
+                }
+
+                host.setLength(0);
+                hostStart = -1;
+                labels = 0;
+                obfuscated = false;
+                strong = false;
+                bestEnd = -1;
+            }
+
+            boolean spaceAfter = space;
+            separated = false;
+            space = false;
+
+            if (labelEnd == index) {
+                index = Math.max(index + 1, dotEnd);
+                continue;
+            }
+
+            if (labels == 0) {
+                hostStart = index;
+            } else {
+                if (!plainDot || spaceBefore) obfuscated = true;
+
+                // A spaced or spelled out dot reads like normal chat.
+                loose = dotWord || (singleDot && (spaceBefore || spaceAfter));
+                if (!loose) strong = true;
+
+                previousLabelLength = host.length() - lastLabel;
+                host.append('.');
+            }
+
+            lastLabel = host.length();
+            appendLabel(message, index, labelEnd, host);
+            labels++;
+
+            if (obfuscated && labels >= 2 && previousLabelLength >= MIN_SECOND_LEVEL_LENGTH && (strong || labels >= 3)) {
+                byte domain = UrlScanner.lookup(host, lastLabel, host.length());
+
+                if (domain == UrlScanner.DOMAIN || (domain == UrlScanner.COMMON_WORD && labels >= 3 && !loose)) {
+                    bestEnd = labelEnd;
+                    bestLength = host.length();
+                }
+            }
+
+            index = labelEnd;
+        }
+
+        return found;
+    }
+
+    /**
+     * Used to check if a dot substitute starts at an index.
+     *
+     * @param message The message.
+     * @param index   The index to check.
+     * @return The index after the dot substitute, or -1 if there is not one.
+     */
+    private static int matchDot(@NotNull CharSequence message, int index) {
+        char character = message.charAt(index);
+
+        if (character == '.' || character == '．' || character == '。'
+                || character == '｡' || character == '·') return index + 1;
+
+        char close = switch (character) {
+            case '(' -> ')';
+            case '[' -> ']';
+            case '{' -> '}';
+            case '<' -> '>';
+            default -> 0;
+        };
+
+        if (close == 0) return isDotWord(message, index) ? index + 3 : -1;
+
+        int limit = Math.min(message.length(), index + MAX_BRACKET_LENGTH);
+        int position = skipSpaces(message, index + 1, limit);
+        if (position >= limit) return -1;
+
+        if (message.charAt(position) == '.') position++;
+        else if (position + 3 <= limit && isDot(message, position)) position += 3;
+        else return -1;
+
+        position = skipSpaces(message, position, limit);
+        if (position >= limit || message.charAt(position) != close) return -1;
+        return position + 1;
+    }
+
+    /**
+     * Used to check if the word "dot" stands on its own at an index.
+     *
+     * @param message The message.
+     * @param index   The index the word would start at.
+     * @return True if it is the word "dot".
+     */
+    private static boolean isDotWord(@NotNull CharSequence message, int index) {
+        if (index + 3 > message.length() || !isDot(message, index)) return false;
+        if (index > 0 && isLabelCharacter(message.charAt(index - 1))) return false;
+        return index + 3 == message.length() || !isLabelCharacter(message.charAt(index + 3));
+    }
+
+    private static boolean isDot(@NotNull CharSequence message, int index) {
+        char first = Character.toLowerCase(message.charAt(index));
+        char middle = Character.toLowerCase(message.charAt(index + 1));
+        char last = Character.toLowerCase(message.charAt(index + 2));
+        return first == 'd' && (middle == 'o' || middle == '0') && last == 't';
+    }
+
+    private static int skipSpaces(@NotNull CharSequence message, int index, int limit) {
+        while (index < limit && message.charAt(index) == ' ') index++;
+        return index;
+    }
+
+    /**
+     * Used to read a label, skipping invisible characters inside it.
+     *
+     * @param message The message.
+     * @param index   The index the label starts at.
+     * @return The index after the label, or the same index if there is no label.
+     */
+    private static int readLabel(@NotNull CharSequence message, int index) {
+        int end = index;
+
+        for (int position = index; position < message.length(); position++) {
+            char character = message.charAt(position);
+
+            if (isLabelCharacter(character)) end = position + 1;
+            else if (Character.getType(character) != Character.FORMAT) break;
+        }
+
+        return end;
+    }
+
+    private static void appendLabel(@NotNull CharSequence message, int start, int end, @NotNull StringBuilder host) {
+        for (int index = start; index < end; index++) {
+            char character = message.charAt(index);
+            if (isLabelCharacter(character)) host.append(fold(character));
+        }
+    }
+
+    private static boolean isLabelCharacter(char character) {
+        return character == '-' || fold(character) != 0;
+    }
+
+    /**
+     * Used to fold a character the way the banned word filter does,
+     * without turning digits or symbols like {@code @} into letters.
+     *
+     * @param character The character.
+     * @return The folded letter or digit, or 0 if it is not part of a label.
+     */
+    private static char fold(char character) {
+        if (character < 128) {
+            if (character == '-' || (character >= '0' && character <= '9')) return character;
+            if (character >= 'a' && character <= 'z') return character;
+            if (character >= 'A' && character <= 'Z') return (char) (character + ('a' - 'A'));
+            return 0;
+        }
+
+        char folded = MessageNormalizer.normalize(character);
+        return folded == ' ' ? 0 : folded;
+    }
+}
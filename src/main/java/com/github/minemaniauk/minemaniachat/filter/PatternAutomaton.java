@@ -0,0 +1,316 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.minemaniauk.minemaniachat.filter.BannedWordMatcher.ALPHABET;
+import static com.github.minemaniauk.minemaniachat.filter.BannedWordMatcher.SPACE;
+
+/**
+ * Used to match banned patterns such as {@code n*gg*} or {@code f+u+c+k+}.
+ * <p>
+ * Every pattern is turned into a small list of steps and all of the
+ * patterns are compiled together into one deterministic automaton by
+ * subset construction. Checking a message is then one table lookup
+ * per character, with no backtracking, however many patterns there are.
+ * <p>
+ * Pattern syntax, after the pattern is normalised like a message:
+ * <ul>
+ *     <li>a-z, 0-9 and space match themselves</li>
+ *     <li>{@code .} matches any one character other than a space</li>
+ *     <li>{@code *} matches any run of characters other than a space</li>
+ *     <li>{@code [abc]} matches any one of the characters inside</li>
+ *     <li>{@code +} after a character means one or more of it</li>
+ *     <li>{@code ?} after a character means it is optional</li>
+ * </ul>
+ * Like phrases, a pattern has to match whole words.
+ */
+final class PatternAutomaton {
+
+    /**
+     * The most states the automaton may have before
+     * the patterns are considered too complex.
+     */
+    static final int MAX_STATES = 20_000;
+
+    private static final long ANY_BUT_SPACE = (1L << SPACE) - 1;
+    private static final long ONLY_SPACE = 1L << SPACE;
+
+    private static final int ONE = 0;
+    private static final int OPTIONAL = 1;
+    private static final int REPEAT = 2;
+
+    private final int[] transitions;
+    private final boolean[] accepting;
+    private final int start;
+
+    private PatternAutomaton(int[] transitions, boolean[] accepting, int start) {
+        this.transitions = transitions;
+        this.accepting = accepting;
+        this.start = start;
+    }
+
+    /**
+     * Represents one step of a pattern.
+     *
+     * @param symbols    The symbols it can match as a bit mask.
+     * @param quantifier How many times it can match.
+     */
+    private record Step(long symbols, int quantifier) {
+    }
+
+    /**
+     * Used to compile a list of patterns.
+     *
+     * @param patterns The patterns.
+     * @return The compiled automaton.
+     * @throws IllegalArgumentException If a pattern is invalid or
+     *                                  the patterns are too complex.
+     */
+    static @NotNull PatternAutomaton compile(@NotNull Collection<String> patterns) {
+        List<Step> steps = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        BitSet ends = new BitSet();
+
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isBlank()) continue;
+
+            List<Step> parsed = parse(pattern.trim());
+            starts.add(steps.size());
+            steps.addAll(parsed);
+
+            // The position after the last step is where the pattern has matched.
+            ends.set(steps.size());
+            steps.add(new Step(0, ONE));
+        }
+
+        Step[] stepArray = steps.toArray(new Step[0]);
+
+        BitSet initial = new BitSet();
+        for (int position : starts) closure(stepArray, position, initial);
+
+        List<BitSet> states = new ArrayList<>();
+        Map<BitSet, Integer> ids = new HashMap<>();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        states.add(initial);
+        ids.put(initial, 0);
+        queue.add(0);
+
+        int[] transitions = new int[ALPHABET * 64];
+
+        while (!queue.isEmpty()) {
+            int id = queue.poll();
+            BitSet current = states.get(id);
+
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                BitSet next = (BitSet) initial.clone();
+
+                for (int position = current.nextSetBit(0); position >= 0; position = current.nextSetBit(position + 1)) {
+                    Step step = stepArray[position];
+                    if ((step.symbols() & (1L << symbol)) == 0) continue;
+
+                    closure(stepArray, step.quantifier() == REPEAT ? position : position + 1, next);
+                }
+
+                Integer nextId = ids.get(next);
+                if (nextId == null) {
+                    nextId = states.size();
+                    if (nextId >= MAX_STATES) {
+                        throw new IllegalArgumentException("The banned patterns are too complex, they need more than " + MAX_STATES + " states");
+                    }
+
+                    states.add(next);
+                    ids.put(next, nextId);
+                    queue.add(nextId);
+                }
+
+                int slot = id * ALPHABET + symbol;
+                if (slot >= transitions.length) transitions = Arrays.copyOf(transitions, transitions.length * 2);
+                transitions[slot] = nextId;
+            }
+        }
+
+        boolean[] accepting = new boolean[states.size()];
+        for (int id = 0; id < states.size(); id++) {
+            accepting[id] = states.get(id).intersects(ends);
+        }
+
+        transitions = Arrays.copyOf(transitions, states.size() * ALPHABET);
+
+        // The message is padded with a space at the start.
+        return new PatternAutomaton(transitions, accepting, transitions[SPACE]);
+    }
+
+    /**
+     * Used to add a position and every position
+     * reachable from it without reading a character.
+     */
+    private static void closure(Step[] steps, int position, BitSet into) {
+        while (position < steps.length && !into.get(position)) {
+            into.set(position);
+
+            int quantifier = steps[position].quantifier();
+            if (quantifier != OPTIONAL && quantifier != REPEAT) return;
+            position++;
+        }
+    }
+
+    /**
+     * Used to turn a pattern into steps,
+     * padded with a space step on each side.
+     */
+    private static @NotNull List<Step> parse(@NotNull String pattern) {
+        List<Step> steps = new ArrayList<>();
+        steps.add(new Step(ONLY_SPACE, ONE));
+
+        for (int index = 0; index < pattern.length(); index++) {
+            char character = pattern.charAt(index);
+            long symbols;
+
+            switch (character) {
+                case '*' -> {
+                    steps.add(new Step(ANY_BUT_SPACE, REPEAT));
+                    continue;
+                }
+                case '+', '?' -> {
+                    Step previous = steps.size() > 1 ? steps.remove(steps.size() - 1) : null;
+                    if (previous == null || previous.quantifier() != ONE) {
+                        throw new IllegalArgumentException("Nothing to repeat before " + character + " in " + pattern);
+                    }
+
+                    // x+ is x followed by any number of x.
+                    if (character == '+') steps.add(previous);
+                    steps.add(new Step(previous.symbols(), character == '+' ? REPEAT : OPTIONAL));
+                    continue;
+                }
+                case '.' -> symbols = ANY_BUT_SPACE;
+                case '[' -> {
+                    int close = pattern.indexOf(']', index);
+                    if (close == -1) throw new IllegalArgumentException("Missing ] in " + pattern);
+
+                    symbols = 0;
+                    for (int inside = index + 1; inside < close; inside++) {
+                        symbols |= mask(pattern.charAt(inside));
+                    }
+                    index = close;
+                    if (symbols == 0) continue;
+                }
+                default -> {
+                    symbols = mask(character);
+                    if (symbols == 0) continue;
+                }
+            }
+
+            steps.add(new Step(symbols, ONE));
+        }
+
+        steps.add(new Step(ONLY_SPACE, ONE));
+        return steps;
+    }
+
+    private static long mask(char character) {
+        int symbol = BannedWordMatcher.symbol(MessageNormalizer.normalize(character));
+        if (symbol == BannedWordMatcher.SKIP) return 0;
+        return 1L << symbol;
+    }
+
+    /**
+     * Used to get the state to begin a message in.
+     *
+     * @return The start state.
+     */
+    int getStart() {
+        return this.start;
+    }
+
+    /**
+     * Used to get the state after reading a symbol.
+     *
+     * @param state  The current state.
+     * @param symbol The symbol.
+     * @return The next state.
+     */
+    int next(int state, int symbol) {
+        return this.transitions[state * ALPHABET + symbol];
+    }
+
+    /**
+     * Used to check if a state means a pattern matched.
+     *
+     * @param state The state.
+     * @return True if a pattern matched.
+     */
+    boolean isAccepting(int state) {
+        return this.accepting[state];
+    }
+
+    /**
+     * Used to get the number of states in the automaton.
+     *
+     * @return The number of states.
+     */
+    int getStateCount() {
+        return this.accepting.length;
+    }
+
+    /**
+     * Used to write the compiled automaton for a {@link MatcherArtifact}.
+     *
+     * @param output The stream to write to.
+     * @throws IOException If the stream could not be written to.
+     */
+    void write(@NotNull DataOutputStream output) throws IOException {
+        output.writeInt(this.start);
+        MatcherArtifact.writeInts(output, this.transitions);
+        MatcherArtifact.writeBooleans(output, this.accepting);
+    }
+
+    /**
+     * Used to read an automaton written by {@link #write(DataOutputStream)}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The automaton.
+     */
+    static @NotNull PatternAutomaton read(@NotNull ByteBuffer buffer) {
+        int start = buffer.getInt();
+        int[] transitions = MatcherArtifact.readInts(buffer);
+        boolean[] accepting = MatcherArtifact.readBooleans(buffer);
+
+        MatcherArtifact.check(transitions.length == accepting.length * ALPHABET && start >= 0 && start < accepting.length);
+        MatcherArtifact.checkTransitions(transitions, accepting.length);
+        return new PatternAutomaton(transitions, accepting, start);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Used to normalise characters one at a time with the lookup table,
+ * counting the content stats of each character as it goes.
+ */
+final class ScalarCharScanner implements CharScanner {
+
+    @Override
+    public int normalize(char[] source, int length, char[] table, byte[] classes, char[] target, int[] offsets, int[] stats) {
+        int written = 0;
+        int letters = 0;
+        int uppercase = 0;
+        int marks = 0;
+        int run = 0;
+        int longestRun = 0;
+        int markRun = 0;
+        int longestMarkRun = 0;
+        char last = 0;
+
+        for (int index = 0; index < length; index++) {
+            char character = source[index];
+            byte type = classes[character];
+
+            if ((type & ContentStats.LETTER) != 0) letters++;
+            if ((type & ContentStats.UPPER) != 0) uppercase++;
+
+            if ((type & ContentStats.MARK) != 0) {
+                marks++;
+                if (++markRun > longestMarkRun) longestMarkRun = markRun;
+            } else {
+                markRun = 0;
+            }
+
+            if ((type & ContentStats.SPACE) != 0) run = 0;
+            else run = character == last ? run + 1 : 1;
+            if (run > longestRun) longestRun = run;
+            last = character;
+
+            char normalized = table[character];
+            if (normalized == 0) continue;
+
+            target[written] = normalized;
+            offsets[written++] = index;
+        }
+
+        stats[ContentStats.LETTERS] = letters;
+        stats[ContentStats.UPPERCASE] = uppercase;
+        stats[ContentStats.LONGEST_RUN] = longestRun;
+        stats[ContentStats.COMBINING_MARKS] = marks;
+        stats[ContentStats.LONGEST_MARK_RUN] = longestMarkRun;
+        return written;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Used to find links in messages.
+ * <p>
+ * The message is read once from start to end. It is split into runs of
+ * characters that can appear in a host name, and a run is only a link if
+ * its last label is a real top level domain. The domains are loaded from
+ * {@code tlds.txt}, which is generated from the IANA root zone list by
+ * {@code scripts/update-tlds.sh}, into a trie when the class loads, so
+ * looking one up reads each of its letters once.
+ * <p>
+ * Some top level domains are also common words, such as {@code .am} or
+ * {@code .world}, and are listed in {@code tlds-common.txt}.
+ * A host ending in one of these only counts as a link
+ * when it starts with a scheme or {@code www.}, has a path, or has a
+ * subdomain, so "i.am here" is not a link but "i.am/page" is.
+ * <p>
+ * Links written to dodge the filter, like {@code play . server . net}
+ * or {@code server(dot)net}, are found by the {@link ObfuscatedLinkScanner}.
+ */
+public final class UrlScanner {
+
+    private static final int LETTERS = 26;
+
+    static final byte NOT_DOMAIN = 0;
+    static final byte DOMAIN = 1;
+    static final byte COMMON_WORD = 2;
+
+    private static final int[] TRIE;
+    private static final byte[] FLAGS;
+
+    static {
+        int[] trie = new int[LETTERS * 64];
+        byte[] flags = new byte[64];
+        int states = 1;
+
+        Set<String> commonWords = new HashSet<>(readLines("tlds-common.txt"));
+
+        for (String domain : readLines("tlds.txt")) {
+            boolean commonWord = commonWords.contains(domain);
+            int state = 0;
+
+            for (int index = 0; index < domain.length(); index++) {
+                int slot = state * LETTERS + domain.charAt(index) - 'a';
+
+                if (trie[slot] == 0) {
+                    if (states * LETTERS >= trie.length) {
+                        trie = Arrays.copyOf(trie, trie.length * 2);
+                        flags = Arrays.copyOf(flags, flags.length * 2);
+                    }
+                    trie[slot] = states++;
+                }
+
+                state = trie[slot];
+            }
+
+            flags[state] = commonWord ? COMMON_WORD : DOMAIN;
+        }
+
+        TRIE = Arrays.copyOf(trie, states * LETTERS);
+        FLAGS = Arrays.copyOf(flags, states);
+    }
+
+    /**
+     * Represents a link found in a message.
+     *
+     * @param start   The index the link starts at, including the scheme.
+     * @param end     The index after the link, including the path.
+     * @param hostEnd The index after the host name, where the path starts.
+     * @param host    The host name in lower case with plain dots,
+     *                even if the link was written another way.
+     */
+    public record Match(int start, int end, int hostEnd, @NotNull String host) {
+    }
+
+    private UrlScanner() {
+    }
+
+    /**
+     * Used to check if a message contains a link.
+     * Stops at the first link and allocates nothing.
+     *
+     * @param message The message to check.
+     * @return True if a link was found.
+     */
+    public static boolean contains(@NotNull CharSequence message) {
+        return scan(message, null) || ObfuscatedLinkScanner.scan(message, null);
+    }
+
+    /**
+     * Used to find every link in a message.
+     *
+     * A plain link that is part of a longer obfuscated one,
+     * like {@code play.cheap} in {@code play.cheap . net}, is left out.
+     *
+     * @param message The message to check.
+     * @return The links in the order they appear.
+     */
+    public static @NotNull List<Match> find(@NotNull CharSequence message) {
+        List<Match> matches = new ArrayList<>(2);
+        scan(message, matches);
+
+        int plain = matches.size();
+        ObfuscatedLinkScanner.scan(message, matches);
+        if (plain == 0 || matches.size() == plain) return matches;
+
+        matches.sort(Comparator.comparingInt(Match::start).thenComparing(Comparator.comparingInt(Match::end).reversed()));
+
+        int last = -1;
+        for (Iterator<Match> iterator = matches.iterator(); iterator.hasNext(); ) {
+            Match match = iterator.next();
+
+            if (match.end() <= last) iterator.remove();
+            else last = match.end();
+        }
+
+        return matches;
+    }
+
+    /**
+     * Used to scan a message for links.
+     *
+     * @param message The message.
+     * @param matches The list to add links to, or null to stop at the first link.
+     * @return True if a link was found.
+     */
+    private static boolean scan(@NotNull CharSequence message, @Nullable List<Match> matches) {
+        int length = message.length();
+        int index = 0;
+        boolean found = false;
+
+        while (index < length) {
+            if (!isHostCharacter(message.charAt(index))) {
+                index++;
+                continue;
+            }
+
+            int runStart = index;
+            while (index < length && isHostCharacter(message.charAt(index))) index++;
+            int runEnd = index;
+
+            // Dots and dashes at the edges are punctuation, like the end of a sentence.
+            int hostStart = runStart;
+            int hostEnd = runEnd;
+            while (hostStart < hostEnd && isSeparator(message.charAt(hostStart))) hostStart++;
+            while (hostEnd > hostStart && isSeparator(message.charAt(hostEnd - 1))) hostEnd--;
+
+            int lastDot = -1;
+            int dots = 0;
+            for (int position = hostStart; position < hostEnd; position++) {
+                if (message.charAt(position) != '.') continue;
+                lastDot = position;
+                dots++;
+            }
+
+            if (lastDot <= hostStart || message.charAt(lastDot - 1) == '.') continue;
+
+            byte domain = lookup(message, lastDot + 1, hostEnd);
+            if (domain == NOT_DOMAIN) continue;
+
+            int start = hostStart;
+            boolean scheme = false;
+
+            if (hostStart == runStart && hostStart >= 3 && message.charAt(hostStart - 1) == '/'
+                    && message.charAt(hostStart - 2) == '/' && message.charAt(hostStart - 3) == ':') {
+
+                int schemeStart = hostStart - 3;
+                while (schemeStart > 0 && isLetter(message.charAt(schemeStart - 1))) schemeStart--;
+
+                int schemeLength = hostStart - 3 - schemeStart;
+                if (schemeLength == 4 || schemeLength == 5) {
+                    scheme = regionMatches(message, schemeStart, "https", schemeLength);
+                    if (scheme) start = schemeStart;
+                }
+            }
+
+            boolean www = hostEnd - hostStart > 4 && regionMatches(message, hostStart, "www.", 4);
+
+            int end = hostEnd;
+            boolean path = hostEnd == runEnd && runEnd < length && isPathStart(message, runEnd);
+
+            if (path) {
+                while (end < length && !Character.isWhitespace(message.charAt(end))) end++;
+                index = end;
+            }
+
+            if (domain == COMMON_WORD && !scheme && !www && !path && dots < 2) continue;
+
+            found = true;
+            if (matches == null) return true;
+            matches.add(new Match(start, end, hostEnd, message.subSequence(hostStart, hostEnd).toString().toLowerCase(Locale.ROOT)));
+        }
+
+        return found;
+    }
+
+    /**
+     * Used to look a label up in the trie of top level domains.
+     *
+     * @param message The message.
+     * @param start   The index the label starts at.
+     * @param end     The index after the label.
+     * @return The kind of domain, or {@link #NOT_DOMAIN}.
+     */
+    static byte lookup(@NotNull CharSequence message, int start, int end) {
+        int state = 0;
+
+        for (int index = start; index < end; index++) {
+            int letter = Character.toLowerCase(message.charAt(index)) - 'a';
+            if (letter < 0 || letter >= LETTERS) return NOT_DOMAIN;
+
+            state = TRIE[state * LETTERS + letter];
+            if (state == 0) return NOT_DOMAIN;
+        }
+
+        return FLAGS[state];
+    }
+
+    private static boolean regionMatches(@NotNull CharSequence message, int start, @NotNull String lowerCase, int length) {
+        for (int index = 0; index < length; index++) {
+            if (Character.toLowerCase(message.charAt(start + index)) != lowerCase.charAt(index)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isPathStart(@NotNull CharSequence message, int index) {
+        char character = message.charAt(index);
+        if (character == '/') return true;
+
+        // A port, like host.com:25565
+        return character == ':' && index + 1 < message.length() && isDigit(message.charAt(index + 1));
+    }
+
+    private static boolean isHostCharacter(char character) {
+        return isLetter(character) || isDigit(character) || isSeparator(character);
+    }
+
+    private static boolean isSeparator(char character) {
+        return character == '.' || character == '-';
+    }
+
+    private static boolean isLetter(char character) {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
+    }
+
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    private static @NotNull List<String> readLines(@NotNull String resource) {
+        InputStream stream = UrlScanner.class.getClassLoader().getResourceAsStream(resource);
+        if (stream == null) throw new IllegalStateException("Missing resource " + resource);
+
+        List<String> lines = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim().toLowerCase(Locale.ROOT);
+                if (!line.isEmpty() && !line.startsWith("#")) lines.add(line);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        return lines;
+    }
+}
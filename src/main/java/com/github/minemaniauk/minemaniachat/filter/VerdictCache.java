@@ -0,0 +1,252 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Used to remember the filter verdict of recent messages,
+ * so a message that is sent over and over, like "gg" during
+ * an event or a copy pasted advert, is only filtered once.
+ * <p>
+ * The cache is a least recently used map bounded by both the
+ * number of entries and the total length of the cached messages.
+ * Long messages are rarely repeated so they are never cached.
+ * <p>
+ * Entries are keyed by the message as it was sent rather than its
+ * normalised form. Most of a verdict depends on more than the
+ * normalised text: the mask spans are offsets into the original
+ * message, the caps count needs the original case and the link
+ * check needs the dots and spaces the normaliser drops. A key on
+ * the normalised form would also have to normalise every message
+ * before the lookup, which is most of the work a hit saves.
+ * It is split into stripes by the hash of the message, each with
+ * its own lock and share of the bounds, so the moderation threads
+ * rarely wait on each other.
+ * <p>
+ * Each entry remembers the rules it was worked out with, such as
+ * the banned word matcher. An entry is only used while the same
+ * rules are still in use, so swapping in new rules drops every
+ * old verdict at once without having to lock the cache. Reloading
+ * the config creates a new chat handler and with it a new cache.
+ */
+public class VerdictCache {
+
+    /**
+     * Roughly how many characters an entry
+     * costs on top of the message itself.
+     */
+    private static final int ENTRY_OVERHEAD = 32;
+
+    /**
+     * The number of stripes, this must be a power of two.
+     */
+    private static final int STRIPES = 16;
+
+    private final boolean enabled;
+    private final int maxMessageLength;
+    private final @NotNull Stripe[] stripes = new Stripe[STRIPES];
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Represents what the filters decided about a message.
+     *
+     * @param filterResult What the banned word filter found.
+     * @param link         The most severe action of any link in the message.
+     * @param content      What the message is made of, counted in the banned word pass.
+     */
+    public record Verdict(@NotNull FilterResult filterResult, @NotNull DomainPolicy.Action link, @NotNull ContentStats content) {
+    }
+
+    private record Entry(@NotNull Verdict verdict, @NotNull Object rules) {
+    }
+
+    /**
+     * Represents one part of the cache with its own lock.
+     */
+    private static final class Stripe {
+        private final @NotNull LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maxEntries;
+        private final long maxWeight;
+        private long weight;
+
+        private Stripe(int maxEntries, long maxWeight) {
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+    }
+
+    /**
+     * Used to create a new verdict cache.
+     *
+     * @param configuration The configuration containing the filter-cache section.
+     */
+    public VerdictCache(@NotNull Configuration configuration) {
+        this.enabled = configuration.getBoolean("filter-cache.enabled", true);
+        this.maxMessageLength = Math.max(1, configuration.getInteger("filter-cache.max-message-length", 256));
+
+        int maxEntries = Math.max(1, configuration.getInteger("filter-cache.max-entries", 4096) / STRIPES);
+        long maxWeight = Math.max(1, configuration.getLong("filter-cache.max-characters", 262144) / STRIPES);
+
+        for (int index = 0; index < STRIPES; index++) {
+            this.stripes[index] = new Stripe(maxEntries, maxWeight);
+        }
+    }
+
+    /**
+     * Used to get the cached verdict of a message.
+     * Only the exact same message will match.
+     *
+     * @param message The message as it was sent.
+     * @param rules   The rules currently in use.
+     * @return The verdict, or null if it is not cached for these rules.
+     */
+    public @Nullable Verdict get(@NotNull String message, @NotNull Object rules) {
+        if (!this.enabled || message.length() > this.maxMessageLength) return null;
+
+        Stripe stripe = this.getStripe(message);
+
+        Entry entry;
+        synchronized (stripe) {
+            entry = stripe.entries.get(message);
+        }
+
+        if (entry == null || entry.rules() != rules) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+
+        this.hits.incrementAndGet();
+        return entry.verdict();
+    }
+
+    /**
+     * Used to cache the verdict of a message.
+     *
+     * @param message The message as it was sent.
+     * @param rules   The rules the verdict was worked out with.
+     * @param verdict The verdict.
+     */
+    public void put(@NotNull String message, @NotNull Object rules, @NotNull Verdict verdict) {
+        if (!this.enabled || message.length() > this.maxMessageLength) return;
+
+        Stripe stripe = this.getStripe(message);
+
+        synchronized (stripe) {
+            Entry previous = stripe.entries.put(message, new Entry(verdict, rules));
+            if (previous == null) stripe.weight += weigh(message);
+
+            Iterator<Map.Entry<String, Entry>> iterator = stripe.entries.entrySet().iterator();
+            while ((stripe.entries.size() > stripe.maxEntries || stripe.weight > stripe.maxWeight) && iterator.hasNext()) {
+                String eldest = iterator.next().getKey();
+                if (eldest.equals(message)) break;
+
+                iterator.remove();
+                stripe.weight -= weigh(eldest);
+                this.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private @NotNull Stripe getStripe(@NotNull String message) {
+        int hash = message.hashCode();
+        return this.stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static long weigh(@NotNull String message) {
+        return message.length() + ENTRY_OVERHEAD;
+    }
+
+    /**
+     * Used to check if the cache is turned on.
+     *
+     * @return True if verdicts are cached.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Used to get the number of cached verdicts.
+     *
+     * @return The number of entries.
+     */
+    public int getSize() {
+        int size = 0;
+
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Used to get the number of lookups that found a verdict.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Used to get the number of lookups that did not find a verdict.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Used to get the number of verdicts removed to make space.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    /**
+     * Used to get the percentage of lookups that found a verdict.
+     *
+     * @return The hit rate from 0 to 100.
+     */
+    public double getHitRate() {
+        long hits = this.hits.get();
+        long total = hits + this.misses.get();
+        return total == 0 ? 0 : hits * 100.0 / total;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.minemaniauk.minemaniachat.filter.FilterResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Used to stop messages with banned words.
+ * Masked words and watchlist terms are stored in the context,
+ * so the caller can hide them and staff are only alerted
+ * once the whole chain has passed the message.
+ */
+public class BannedWordFilter implements ChatFilter {
+
+    @Override
+    public @NotNull String getName() {
+        return "banned-words";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        FilterResult filterResult = context.getVerdict().filterResult();
+
+        if (!filterResult.isBlocked() && !filterResult.isAlerted() && !filterResult.hasMasks()) return null;
+        if (context.hasPermission("chat.bypass.filter.banned-words")) return null;
+
+        if (filterResult.isBlocked()) {
+            String notice = context.getSource() == FilterContext.Source.DISCORD ? null : "&c&l> &cSomething went wrong.";
+            return context.reject(this, notice, "with Banned words!", "Banned word Alert");
+        }
+
+        context.setFilterResult(filterResult);
+        return null;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.minemaniauk.minemaniachat.filter.ContentStats;
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Used to stop messages that are mostly capital letters.
+ * Short messages like "OK" or "GG" are always allowed.
+ */
+public class CapsFilter implements ChatFilter {
+
+    private final boolean enabled;
+    private final int minLetters;
+    private final int maxPercent;
+
+    /**
+     * Used to create a new caps filter.
+     *
+     * @param configuration The plugin configuration.
+     */
+    public CapsFilter(@NotNull Configuration configuration) {
+        this.enabled = configuration.getBoolean("content-filter.caps.enabled", false);
+        this.minLetters = configuration.getInteger("content-filter.caps.min-letters", 8);
+        this.maxPercent = configuration.getInteger("content-filter.caps.max-percent", 70);
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "caps";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        ContentStats content = context.getVerdict().content();
+
+        if (!this.enabled || content.letters() < this.minLetters) return null;
+        if (content.getCapsPercent() <= this.maxPercent) return null;
+        if (context.hasPermission("chat.bypass.filter.content")) return null;
+
+        return context.reject(this, context.notice("Please do not use so many capital letters"));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Used to stop messages while chat is disabled,
+ * or while the discord bridge is disabled for discord messages.
+ */
+public class ChatDisabledFilter implements ChatFilter {
+
+    private final @NotNull Configuration configuration;
+
+    /**
+     * Used to create a new chat disabled filter.
+     *
+     * @param configuration The plugin configuration.
+     */
+    public ChatDisabledFilter(@NotNull Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "chat-disabled";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        boolean chatEnabled = this.configuration.getBoolean("chat-enabled");
+        boolean discord = context.getSource() == FilterContext.Source.DISCORD;
+
+        if (chatEnabled && (!discord || this.configuration.getBoolean("discord-enabled"))) return null;
+        if (context.hasPermission("chat.bypass.disable")) return null;
+
+        if (!discord) return context.reject(this, "&c&l> &7Chat is currently &cdisabled");
+        if (!chatEnabled) return context.reject(this, "Chat is disabled on the server");
+        return context.reject(this, "The discord bridge is currently disabled");
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a single check a message has to pass before it is sent,
+ * such as the banned word filter or the spam filter.
+ * <p>
+ * Filters are run by a {@link FilterChain}, which may change the
+ * order they run in to put cheap filters that often reject first.
+ * A filter must not depend on another filter having run before it,
+ * unless one of them {@link #hasSideEffects() has side effects}.
+ */
+public interface ChatFilter {
+
+    /**
+     * Used to get the name of the filter,
+     * as shown in the filter stats.
+     *
+     * @return The name of the filter.
+     */
+    @NotNull String getName();
+
+    /**
+     * Used to check a message.
+     *
+     * @param context The message being checked.
+     * @return Why the message was rejected, or null if it passed.
+     */
+    @Nullable Rejection check(@NotNull FilterContext context);
+
+    /**
+     * Used to check if the filter changes state when it runs,
+     * like slow mode using up the players next message,
+     * or has to run before the filters after it, like mute.
+     * These filters are never moved, so they only run
+     * when every filter before them has passed.
+     *
+     * @return True if the filter has side effects.
+     */
+    default boolean hasSideEffects() {
+        return false;
+    }
+}
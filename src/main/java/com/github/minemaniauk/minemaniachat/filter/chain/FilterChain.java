@@ -0,0 +1,311 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Used to run a message through a list of {@link ChatFilter}s,
+ * stopping at the first one that rejects it.
+ * <p>
+ * The chain records how long each filter takes and how often it
+ * rejects a message. Every {@code filter-chain.reorder-interval}
+ * messages the filters are sorted by their average cost divided by
+ * their reject rate, so a cheap filter that rejects a lot runs before
+ * an expensive one that rarely does, which keeps the average cost per
+ * message as low as it can be. The estimates are smoothed over a few
+ * intervals so a short burst does not flip the order back and forth.
+ * <p>
+ * Filters with side effects are never moved and filters are never moved
+ * past them, so they still only run once the filters before them pass.
+ * The new order is swapped in with a single volatile write.
+ * <p>
+ * The verdict the content filters share is worked out before the first
+ * filter runs, so each filter is only timed for its own work.
+ */
+public class FilterChain {
+
+    /**
+     * How much of the old estimate is kept each time the filters are sorted.
+     */
+    private static final double SMOOTHING = 0.5;
+
+    /**
+     * Used in place of a reject rate of zero,
+     * so filters that never reject sort by cost.
+     */
+    private static final double MIN_REJECT_RATE = 0.0001;
+
+    private final @NotNull String name;
+    private final @NotNull Entry[] entries;
+    private volatile @NotNull Entry[] order;
+
+    private final boolean adaptive;
+    private final long reorderInterval;
+    private final @NotNull AtomicLong checked = new AtomicLong();
+    private final @NotNull LongAdder verdictNanos = new LongAdder();
+
+    /**
+     * Used to create a new filter chain.
+     *
+     * @param name          The name of the chain, as shown in the filter stats.
+     * @param configuration The plugin configuration.
+     * @param filters       The filters in the order they start in.
+     */
+    public FilterChain(@NotNull String name, @NotNull Configuration configuration, @NotNull ChatFilter... filters) {
+        this.name = name;
+        this.adaptive = configuration.getBoolean("filter-chain.adaptive", true);
+        this.reorderInterval = Math.max(1, configuration.getLong("filter-chain.reorder-interval", 500));
+
+        this.entries = new Entry[filters.length];
+        for (int index = 0; index < filters.length; index++) {
+            this.entries[index] = new Entry(filters[index], index);
+        }
+
+        this.order = this.entries.clone();
+    }
+
+    /**
+     * Used to check a message against every filter in the chain.
+     * Watchlist alerts are only sent once every filter passed.
+     *
+     * @param context The message being checked.
+     * @return Why the message was rejected, or null if every filter passed.
+     */
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        Rejection rejection = null;
+
+        // The verdict is shared by the content filters, so it is worked out up front
+        // and timed on its own instead of being charged to whichever filter asks first.
+        long verdictStart = System.nanoTime();
+        context.getVerdict();
+        this.verdictNanos.add(System.nanoTime() - verdictStart);
+
+        for (Entry entry : this.order) {
+            long start = System.nanoTime();
+            rejection = entry.filter.check(context);
+            entry.record(System.nanoTime() - start, rejection != null);
+
+            if (rejection != null) break;
+        }
+
+        long checked = this.checked.incrementAndGet();
+        if (this.adaptive && checked % this.reorderInterval == 0) {
+            this.reorder();
+        }
+
+        if (rejection == null) context.passed();
+        return rejection;
+    }
+
+    /**
+     * Used to sort the filters between each filter with side effects
+     * by how much they cost for each message they reject.
+     */
+    private synchronized void reorder() {
+        for (Entry entry : this.entries) entry.updateEstimate();
+
+        Entry[] sorted = this.order.clone();
+        Comparator<Entry> comparator = Comparator.comparingDouble(Entry::getScore)
+                .thenComparingInt(entry -> entry.position);
+
+        int start = 0;
+        for (int index = 0; index <= sorted.length; index++) {
+            if (index < sorted.length && !sorted[index].filter.hasSideEffects()) continue;
+
+            Arrays.sort(sorted, start, index, comparator);
+            start = index + 1;
+        }
+
+        this.order = sorted;
+    }
+
+    /**
+     * Used to get the name of the chain.
+     *
+     * @return The name of the chain.
+     */
+    public @NotNull String getName() {
+        return this.name;
+    }
+
+    /**
+     * Used to check if the chain reorders its filters.
+     *
+     * @return True if the order adapts.
+     */
+    public boolean isAdaptive() {
+        return this.adaptive;
+    }
+
+    /**
+     * Used to get the number of messages checked by the chain.
+     *
+     * @return The number of messages.
+     */
+    public long getChecked() {
+        return this.checked.get();
+    }
+
+    /**
+     * Used to get the average time it took to work out the
+     * verdict the content filters share, which is not
+     * counted in the stats of any filter.
+     *
+     * @return The average time in microseconds.
+     */
+    public double getAverageVerdictMicros() {
+        long checked = this.checked.get();
+        return checked == 0 ? 0 : this.verdictNanos.sum() / 1000.0 / checked;
+    }
+
+    /**
+     * Used to get the stats of each filter,
+     * in the order the filters currently run.
+     *
+     * @return The stats.
+     */
+    public @NotNull List<Stats> getStats() {
+        List<Stats> stats = new ArrayList<>(this.entries.length);
+
+        for (Entry entry : this.order) {
+            stats.add(new Stats(
+                    entry.filter.getName(),
+                    entry.calls.sum(),
+                    entry.rejections.sum(),
+                    entry.nanos.sum(),
+                    entry.filter.hasSideEffects()
+            ));
+        }
+
+        return stats;
+    }
+
+    /**
+     * Represents what a filter in the chain has done so far.
+     *
+     * @param filter     The name of the filter.
+     * @param checked    The number of messages it checked.
+     * @param rejected   The number of messages it rejected.
+     * @param totalNanos The total time it spent checking messages.
+     * @param fixed      True if the filter is never moved.
+     */
+    public record Stats(@NotNull String filter, long checked, long rejected, long totalNanos, boolean fixed) {
+
+        /**
+         * Used to get the percentage of checked messages that were rejected.
+         *
+         * @return The reject rate, from 0 to 100.
+         */
+        public double getRejectRate() {
+            return this.checked == 0 ? 0 : this.rejected * 100.0 / this.checked;
+        }
+
+        /**
+         * Used to get the average time it took to check a message.
+         *
+         * @return The average time in microseconds.
+         */
+        public double getAverageMicros() {
+            return this.checked == 0 ? 0 : this.totalNanos / 1000.0 / this.checked;
+        }
+    }
+
+    /**
+     * A filter in the chain with its stats.
+     */
+    private static final class Entry {
+
+        private final @NotNull ChatFilter filter;
+        private final int position;
+
+        private final @NotNull LongAdder calls = new LongAdder();
+        private final @NotNull LongAdder rejections = new LongAdder();
+        private final @NotNull LongAdder nanos = new LongAdder();
+
+        // Only used while the chain is being sorted.
+        private long lastCalls;
+        private long lastRejections;
+        private long lastNanos;
+        private double cost = -1;
+        private double rejectRate;
+
+        private Entry(@NotNull ChatFilter filter, int position) {
+            this.filter = filter;
+            this.position = position;
+        }
+
+        private void record(long nanos, boolean rejected) {
+            this.calls.increment();
+            this.nanos.add(nanos);
+            if (rejected) this.rejections.increment();
+        }
+
+        /**
+         * Used to blend the stats since the last sort into the estimate.
+         */
+        private void updateEstimate() {
+            long calls = this.calls.sum();
+            long rejections = this.rejections.sum();
+            long nanos = this.nanos.sum();
+
+            long newCalls = calls - this.lastCalls;
+            if (newCalls <= 0) return;
+
+            double cost = (double) (nanos - this.lastNanos) / newCalls;
+            double rejectRate = (double) (rejections - this.lastRejections) / newCalls;
+
+            if (this.cost < 0) {
+                this.cost = cost;
+                this.rejectRate = rejectRate;
+            } else {
+                this.cost = this.cost * SMOOTHING + cost * (1 - SMOOTHING);
+                this.rejectRate = this.rejectRate * SMOOTHING + rejectRate * (1 - SMOOTHING);
+            }
+
+            this.lastCalls = calls;
+            this.lastRejections = rejections;
+            this.lastNanos = nanos;
+        }
+
+        /**
+         * Used to get the expected cost of the filter
+         * for each message it rejects. Lower runs first.
+         *
+         * @return The score.
+         */
+        private double getScore() {
+            if (this.cost < 0) return Double.MAX_VALUE;
+            return this.cost / Math.max(this.rejectRate, MIN_REJECT_RATE);
+        }
+    }
+}
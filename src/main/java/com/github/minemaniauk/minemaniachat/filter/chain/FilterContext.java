@@ -0,0 +1,306 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.minemaniauk.minemaniachat.filter.FilterResult;
+import com.github.minemaniauk.minemaniachat.filter.VerdictCache;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Represents a message while it is being checked by a {@link FilterChain}.
+ * <p>
+ * The banned word and link verdict is only worked out the first time
+ * a filter asks for it, and is then shared by every filter in the chain.
+ */
+public class FilterContext {
+
+    /**
+     * Where a message came from.
+     */
+    public enum Source {
+        CHAT,
+        PRIVATE_MESSAGE,
+        DISCORD
+    }
+
+    private final @NotNull Source source;
+    private final @NotNull String name;
+    private final @NotNull UUID uuid;
+    private final @Nullable Player player;
+    private final @Nullable Player recipient;
+    private final @NotNull String message;
+    private final @NotNull String action;
+    private final @NotNull String suffix;
+    private final @NotNull Predicate<String> permissions;
+
+    private @Nullable VerdictCache.Verdict verdict;
+    private @NotNull FilterResult filterResult = FilterResult.CLEAN;
+
+    private FilterContext(@NotNull Source source,
+                          @NotNull String name,
+                          @NotNull UUID uuid,
+                          @Nullable Player player,
+                          @Nullable Player recipient,
+                          @NotNull String message,
+                          @NotNull String action,
+                          @NotNull String suffix,
+                          @NotNull Predicate<String> permissions) {
+
+        this.source = source;
+        this.name = name;
+        this.uuid = uuid;
+        this.player = player;
+        this.recipient = recipient;
+        this.message = message;
+        this.action = action;
+        this.suffix = suffix;
+        this.permissions = permissions;
+    }
+
+    /**
+     * Used to create the context for a chat message.
+     *
+     * @param sender  The player sending the message.
+     * @param message The message.
+     * @return The context.
+     */
+    public static @NotNull FilterContext chat(@NotNull Player sender, @NotNull String message) {
+        return new FilterContext(
+                Source.CHAT, sender.getUsername(), sender.getUniqueId(), sender, null,
+                message, "Sent Message", "", sender::hasPermission
+        );
+    }
+
+    /**
+     * Used to create the context for a private message.
+     *
+     * @param from    The player sending the message.
+     * @param to      The player the message is for.
+     * @param message The message.
+     * @return The context.
+     */
+    public static @NotNull FilterContext privateMessage(@NotNull Player from, @NotNull Player to, @NotNull String message) {
+        return new FilterContext(
+                Source.PRIVATE_MESSAGE, from.getUsername(), from.getUniqueId(), from, to,
+                message, "Sent a private message to " + to.getUsername(), "", from::hasPermission
+        );
+    }
+
+    /**
+     * Used to create the context for a message sent through the discord bridge.
+     * Permissions are looked up before the chain runs, as they can not
+     * be checked straight away for players that are not online.
+     *
+     * @param name        The name of the discord user.
+     * @param uuid        The uuid of the linked Minecraft account.
+     * @param message     The message.
+     * @param verdict     The verdict that was already worked out for the message.
+     * @param permissions Used to check the permissions that were looked up.
+     * @return The context.
+     */
+    public static @NotNull FilterContext discord(@NotNull String name,
+                                                 @NotNull UUID uuid,
+                                                 @NotNull String message,
+                                                 @NotNull VerdictCache.Verdict verdict,
+                                                 @NotNull Predicate<String> permissions) {
+
+        FilterContext context = new FilterContext(
+                Source.DISCORD, name, uuid, null, null,
+                message, "Sent Message", " (via the discord bridge)", permissions
+        );
+
+        context.verdict = verdict;
+        return context;
+    }
+
+    /**
+     * Used to get where the message came from.
+     *
+     * @return The source of the message.
+     */
+    public @NotNull Source getSource() {
+        return this.source;
+    }
+
+    /**
+     * Used to get the name of the sender, as shown to staff.
+     *
+     * @return The name of the sender.
+     */
+    public @NotNull String getName() {
+        return this.name;
+    }
+
+    /**
+     * Used to get the uuid of the senders Minecraft account.
+     *
+     * @return The uuid.
+     */
+    public @NotNull UUID getUuid() {
+        return this.uuid;
+    }
+
+    /**
+     * Used to get the sender if they are a player on the proxy.
+     *
+     * @return The sender, or null if the message came from discord.
+     */
+    public @Nullable Player getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * Used to get who a private message is for.
+     *
+     * @return The recipient, or null if this is not a private message.
+     */
+    public @Nullable Player getRecipient() {
+        return this.recipient;
+    }
+
+    /**
+     * Used to get the message as it was sent.
+     *
+     * @return The message.
+     */
+    public @NotNull String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * Used to check if the sender has a permission.
+     *
+     * @param permission The permission.
+     * @return True if they have the permission.
+     */
+    public boolean hasPermission(@NotNull String permission) {
+        return this.permissions.test(permission);
+    }
+
+    /**
+     * Used to get what the banned word and link filters decide about the message.
+     * The {@link FilterChain} works this out before the first filter runs.
+     *
+     * @return The verdict.
+     */
+    public @NotNull VerdictCache.Verdict getVerdict() {
+        if (this.verdict == null) {
+            this.verdict = MineManiaChat.getInstance().getChatHandler().getVerdict(this.message);
+        }
+
+        return this.verdict;
+    }
+
+    /**
+     * Used to get the banned word result to mask the message with.
+     * This is clean unless the banned word filter found something
+     * the sender can not bypass.
+     *
+     * @return The filter result.
+     */
+    public @NotNull FilterResult getFilterResult() {
+        return this.filterResult;
+    }
+
+    /**
+     * Used to set the banned word result to mask the message with.
+     *
+     * @param filterResult The filter result.
+     */
+    public void setFilterResult(@NotNull FilterResult filterResult) {
+        this.filterResult = filterResult;
+    }
+
+    /**
+     * Called by the chain once every filter passed the message.
+     * Used to alert staff about watchlist terms, which is left
+     * until now so a rejected message is never alerted twice.
+     */
+    void passed() {
+        if (!this.filterResult.isAlerted()) return;
+
+        MineManiaChat.getInstance().getChatHandler().notifyWatchlist(this.name, this.describe(), this.filterResult, this.message);
+    }
+
+    /**
+     * Used to describe what the sender did for staff alerts,
+     * for example "Sent Message (via the discord bridge)".
+     *
+     * @return The description.
+     */
+    public @NotNull String describe() {
+        return this.action + this.suffix;
+    }
+
+    /**
+     * Used to describe what the sender did for staff alerts,
+     * for example "Sent Message with a URL!".
+     *
+     * @param detail What was wrong with the message.
+     * @return The description.
+     */
+    public @NotNull String describe(@NotNull String detail) {
+        return this.action + " " + detail + this.suffix;
+    }
+
+    /**
+     * Used to style a notice for where the message came from.
+     * Players see it as a chat message, discord users see it as plain text.
+     *
+     * @param text The notice.
+     * @return The styled notice.
+     */
+    public @NotNull String notice(@NotNull String text) {
+        return this.source == Source.DISCORD ? text : "&c&l> &c" + text;
+    }
+
+    /**
+     * Used to reject the message without alerting staff.
+     *
+     * @param filter The filter rejecting the message.
+     * @param notice The message to show the sender, or null to say nothing.
+     * @return The rejection.
+     */
+    public @NotNull Rejection reject(@NotNull ChatFilter filter, @Nullable String notice) {
+        return new Rejection(filter.getName(), notice, null, null);
+    }
+
+    /**
+     * Used to reject the message and alert staff.
+     *
+     * @param filter     The filter rejecting the message.
+     * @param notice     The message to show the sender, or null to say nothing.
+     * @param detail     What was wrong with the message, see {@link #describe(String)}.
+     * @param alertTitle The title of the staff alert.
+     * @return The rejection.
+     */
+    public @NotNull Rejection reject(@NotNull ChatFilter filter, @Nullable String notice, @NotNull String detail, @NotNull String alertTitle) {
+        return new Rejection(filter.getName(), notice, this.describe(detail), alertTitle);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Used to stop private messages to players
+ * that are ignoring the sender.
+ */
+public class IgnoreFilter implements ChatFilter {
+
+    @Override
+    public @NotNull String getName() {
+        return "ignore";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        Player player = context.getPlayer();
+        Player recipient = context.getRecipient();
+
+        if (player == null || recipient == null) return null;
+        if (context.hasPermission("chat.bypass.ignore")) return null;
+        if (!MineManiaChat.getInstance().getIgnoreManager().isIgnoring(recipient, player)) return null;
+
+        return context.reject(this, "&c&l> &c" + recipient.getUsername() + " is not accepting messages from you");
+    }
+}
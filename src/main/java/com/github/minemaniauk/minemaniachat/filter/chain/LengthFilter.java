@@ -0,0 +1,57 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Used to stop messages that are longer than {@code content-filter.max-length}.
+ */
+public class LengthFilter implements ChatFilter {
+
+    private final int maxLength;
+
+    /**
+     * Used to create a new length filter.
+     *
+     * @param configuration The plugin configuration.
+     */
+    public LengthFilter(@NotNull Configuration configuration) {
+        this.maxLength = configuration.getInteger("content-filter.max-length", 0);
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "length";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        if (this.maxLength <= 0 || context.getVerdict().content().length() <= this.maxLength) return null;
+        if (context.hasPermission("chat.bypass.filter.content")) return null;
+
+        return context.reject(this, context.notice("Your message is too long"));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.minemaniauk.minemaniachat.filter.DomainPolicy;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Used to stop messages with links. Blocked domains are always
+ * stopped and unlisted domains need the bypass permission.
+ */
+public class LinkFilter implements ChatFilter {
+
+    @Override
+    public @NotNull String getName() {
+        return "links";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        DomainPolicy.Action link = context.getVerdict().link();
+
+        if (link == DomainPolicy.Action.ALLOWED) return null;
+        if (link == DomainPolicy.Action.UNLISTED && context.hasPermission("chat.bypass.filter.url")) return null;
+
+        String notice = context.getSource() == FilterContext.Source.DISCORD
+                ? "Try removing any URLs from your message."
+                : "&c&l> &cSomething went wrong.";
+
+        if (link == DomainPolicy.Action.DENIED) {
+            return context.reject(this, notice, "with a blocked link!", "Blocked Link Alert");
+        }
+
+        return context.reject(this, notice, "with a URL!", "URL Alert");
+    }
+}
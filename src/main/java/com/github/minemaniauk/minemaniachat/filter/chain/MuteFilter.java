@@ -0,0 +1,75 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.minemaniauk.minemaniachat.DataBaseController;
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Used to stop players that are muted in the database from talking.
+ * The player is not told, as the punishment plugin already does that.
+ */
+public class MuteFilter implements ChatFilter {
+
+    private final boolean enabled;
+
+    /**
+     * Used to create a new mute filter.
+     *
+     * @param configuration The plugin configuration.
+     */
+    public MuteFilter(@NotNull Configuration configuration) {
+        this.enabled = configuration.getBoolean("database.enabled");
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "mute";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        Player player = context.getPlayer();
+        DataBaseController dbController = MineManiaChat.getInstance().getDbController();
+
+        if (!this.enabled || player == null || dbController == null) return null;
+        if (!dbController.isPlayerMuted(player)) return null;
+
+        return context.reject(this, null);
+    }
+
+    /**
+     * Mute is never moved, so a muted player's message is dropped
+     * quietly before any filter that could alert staff about it.
+     *
+     * @return True.
+     */
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+}
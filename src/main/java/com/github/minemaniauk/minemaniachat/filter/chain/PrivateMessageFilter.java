@@ -0,0 +1,51 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Used to stop private messages from players that
+ * have had private messages disabled with /disablepm.
+ */
+public class PrivateMessageFilter implements ChatFilter {
+
+    @Override
+    public @NotNull String getName() {
+        return "private-messages";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        Player player = context.getPlayer();
+
+        if (player == null) return null;
+        if (context.hasPermission("chat.bypass.private-message.disablement")) return null;
+        if (MineManiaChat.getInstance().getDataManager().CanPlayerPm(player)) return null;
+
+        return context.reject(this, "&c&l> &cSomething went wrong.", "but has private messaging disabled", "PM disabled alert");
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents why a filter rejected a message.
+ *
+ * @param filter       The name of the filter that rejected the message.
+ * @param notice       The message to show the sender, or null to say nothing.
+ * @param staffMessage What to tell staff, or null to not alert staff.
+ * @param alertTitle   The title of the staff alert.
+ */
+public record Rejection(@NotNull String filter,
+                        @Nullable String notice,
+                        @Nullable String staffMessage,
+                        @Nullable String alertTitle) {
+}
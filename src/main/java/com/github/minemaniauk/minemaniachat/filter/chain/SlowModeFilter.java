@@ -0,0 +1,63 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Used to stop players talking faster than slow mode allows.
+ * Messages from discord use the discord slow mode of the linked account.
+ * Passing uses up the players next message, so this filter is never moved.
+ */
+public class SlowModeFilter implements ChatFilter {
+
+    @Override
+    public @NotNull String getName() {
+        return "slow-mode";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        Player player = context.getPlayer();
+        long wait;
+
+        if (context.getSource() == FilterContext.Source.DISCORD) {
+            wait = MineManiaChat.getInstance().getSlowMode().acquireDiscord(context.getUuid());
+        } else {
+            if (player == null || context.hasPermission("chat.bypass.slowmode")) return null;
+            wait = MineManiaChat.getInstance().getSlowMode().acquire(player);
+        }
+
+        if (wait <= 0) return null;
+
+        return context.reject(this, context.notice("Slow mode is on. You can talk again in " + wait + " seconds"));
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.minemaniauk.minemaniachat.ChatHandler;
+import com.github.minemaniauk.minemaniachat.SpamFilterResults;
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Used to stop players sending messages too fast.
+ * Every message that gets this far is added to the players
+ * message history, so this filter is never moved.
+ */
+public class SpamFilter implements ChatFilter {
+
+    private final @NotNull ChatHandler chatHandler;
+
+    private final boolean enabled;
+    private final boolean densityEnabled;
+    private final long densityViolationCooldown;
+
+    /**
+     * Used to create a new spam filter.
+     *
+     * @param chatHandler   The chat handler that keeps the message history.
+     * @param configuration The plugin configuration.
+     */
+    public SpamFilter(@NotNull ChatHandler chatHandler, @NotNull Configuration configuration) {
+        this.chatHandler = chatHandler;
+        this.enabled = configuration.getBoolean("spam-detection.enabled");
+        this.densityEnabled = configuration.getBoolean("spam-detection.message-density.enabled");
+        this.densityViolationCooldown = configuration.getLong("spam-detection.message-density.violation-cooldown");
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "spam";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        Player player = context.getPlayer();
+        if (!this.enabled || player == null) return null;
+
+        if (!context.hasPermission("chat.bypass.filter.spam")) {
+            Instant cooldown = this.chatHandler.playerCooldowns.get(player);
+
+            if (cooldown != null && this.densityEnabled) {
+                if (Instant.now().isBefore(cooldown)) {
+                    this.chatHandler.playerCooldowns.put(player, cooldown.plusSeconds(this.densityViolationCooldown));
+                    return context.reject(this, "&c&l> &cYou are sending messages too fast. Try again soon");
+                }
+
+                this.chatHandler.playerCooldowns.remove(player);
+            }
+
+            SpamFilterResults checkResult = this.chatHandler.CheckSpam(player);
+
+            if (checkResult == SpamFilterResults.MESSAGE_DENSITY) {
+                this.chatHandler.playerCooldowns.put(player, Instant.now().plusSeconds(this.densityViolationCooldown));
+                return context.reject(this, "&c&l> &cYou are sending messages too fast", "and is spam cool downed!", "Spam Filter Cooldown Alert");
+            }
+
+            if (checkResult != SpamFilterResults.NONE) {
+                return context.reject(this, "&c&l> &cYou are sending messages too fast", "and Triggered the spam filter!", "Spam Filter Alert");
+            }
+        }
+
+        // Update Message time history list
+        this.chatHandler.updatePlayerMessageTimes(player);
+        return null;
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+}
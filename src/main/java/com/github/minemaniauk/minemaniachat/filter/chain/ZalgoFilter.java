@@ -0,0 +1,61 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Used to stop zalgo text, which stacks combining marks
+ * on letters until they spill over the lines around them.
+ * A couple of marks are allowed so accented letters still work.
+ */
+public class ZalgoFilter implements ChatFilter {
+
+    private final boolean enabled;
+    private final int maxStacked;
+
+    /**
+     * Used to create a new zalgo filter.
+     *
+     * @param configuration The plugin configuration.
+     */
+    public ZalgoFilter(@NotNull Configuration configuration) {
+        this.enabled = configuration.getBoolean("content-filter.zalgo.enabled", false);
+        this.maxStacked = configuration.getInteger("content-filter.zalgo.max-stacked", 2);
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "zalgo";
+    }
+
+    @Override
+    public @Nullable Rejection check(@NotNull FilterContext context) {
+        if (!this.enabled || context.getVerdict().content().longestMarkRun() <= this.maxStacked) return null;
+        if (context.hasPermission("chat.bypass.filter.content")) return null;
+
+        return context.reject(this, context.notice("Your message has too many stacked accents"));
+    }
+}
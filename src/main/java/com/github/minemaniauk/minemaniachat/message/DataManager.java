@@ -22,9 +22,13 @@ package com.github.minemaniauk.minemaniachat.message;
 
 import com.github.smuddgge.squishyconfiguration.ConfigurationFactory;
 import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import com.github.smuddgge.squishyconfiguration.interfaces.ConfigurationSection;
 import com.velocitypowered.api.proxy.Player;
 
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
 
 public class DataManager {
 
@@ -133,4 +137,38 @@ public class DataManager {
 
         return playerFile.getBoolean("staff-alerts-enabled", true);
     }
+
+    public Map<UUID, String> getIgnoredPlayers(UUID uuid) {
+        Configuration playerFile = ConfigurationFactory.YAML.create(playerDataPath.toFile(), uuid.toString());
+        playerFile.load();
+
+        Map<UUID, String> ignored = new LinkedHashMap<>();
+        ConfigurationSection section = playerFile.getSection("ignored");
+
+        for (String key : section.getKeys()) {
+            try {
+                ignored.put(UUID.fromString(key), section.getString(key, key));
+            } catch (IllegalArgumentException ignoredKey) {
+                // Skip entries that were edited by hand into something invalid.
+            }
+        }
+
+        return ignored;
+    }
+
+    public void addIgnoredPlayer(UUID uuid, UUID ignored, String name) {
+        Configuration playerFile = ConfigurationFactory.YAML.create(playerDataPath.toFile(), uuid.toString());
+        playerFile.load();
+
+        playerFile.set("ignored." + ignored, name);
+        playerFile.save();
+    }
+
+    public void removeIgnoredPlayer(UUID uuid, UUID ignored) {
+        Configuration playerFile = ConfigurationFactory.YAML.create(playerDataPath.toFile(), uuid.toString());
+        playerFile.load();
+
+        playerFile.set("ignored." + ignored, null);
+        playerFile.save();
+    }
 }
@@ -0,0 +1,273 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.minemaniauk.minemaniachat.message;
+
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.connection.PostLoginEvent;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Used to keep track of which players are ignoring each other.
+ * <p>
+ * Every player that takes part in an ignore is given a small
+ * integer index. The players an online player ignores are kept
+ * as a sorted int array of those indexes, so checking a recipient
+ * while fanning out a message is a map lookup and a binary search
+ * with nothing allocated. The arrays are replaced rather than
+ * changed, so readers never need a lock.
+ * <p>
+ * A player keeps their index while an online player ignores them.
+ * Indexes are never reused, so a stale index can not match anyone.
+ */
+public class IgnoreManager {
+
+    private static final Ignored EMPTY = new Ignored(new int[0], new Entry[0]);
+
+    private final @NotNull DataManager dataManager;
+
+    private final @NotNull Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final @NotNull Map<UUID, Ignored> ignoring = new ConcurrentHashMap<>();
+    private int nextIndex;
+
+    /**
+     * Represents a player that takes part in an ignore.
+     */
+    private static final class Entry {
+        private final @NotNull UUID uuid;
+        private final int index;
+        private volatile int ignoredBy;
+
+        private Entry(@NotNull UUID uuid, int index) {
+            this.uuid = uuid;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Represents the players an online player ignores,
+     * sorted by index with the entries in the same order.
+     */
+    private record Ignored(int[] indexes, Entry[] entries) {
+    }
+
+    /**
+     * Used to create a new ignore manager.
+     *
+     * @param dataManager The data manager the ignore lists are saved with.
+     */
+    public IgnoreManager(@NotNull DataManager dataManager) {
+        this.dataManager = dataManager;
+    }
+
+    @Subscribe
+    public void onPostLogin(PostLoginEvent event) {
+        this.load(event.getPlayer().getUniqueId());
+    }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        this.unload(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Used to load a players ignore list from their data file.
+     *
+     * @param uuid The players unique id.
+     */
+    public synchronized void load(@NotNull UUID uuid) {
+        this.unload(uuid);
+
+        Map<UUID, String> ignored = this.dataManager.getIgnoredPlayers(uuid);
+        if (ignored.isEmpty()) return;
+
+        Entry[] entries = new Entry[ignored.size()];
+        int size = 0;
+
+        for (UUID ignoredUuid : ignored.keySet()) {
+            Entry entry = this.intern(ignoredUuid);
+            entry.ignoredBy++;
+            entries[size++] = entry;
+        }
+
+        Arrays.sort(entries, (first, second) -> Integer.compare(first.index, second.index));
+
+        int[] indexes = new int[entries.length];
+        for (int index = 0; index < entries.length; index++) {
+            indexes[index] = entries[index].index;
+        }
+
+        this.ignoring.put(uuid, new Ignored(indexes, entries));
+    }
+
+    /**
+     * Used to forget a players ignore list once they leave.
+     * The list stays saved in their data file.
+     *
+     * @param uuid The players unique id.
+     */
+    public synchronized void unload(@NotNull UUID uuid) {
+        Ignored ignored = this.ignoring.remove(uuid);
+        if (ignored == null) return;
+
+        for (Entry entry : ignored.entries()) {
+            this.release(entry);
+        }
+    }
+
+    /**
+     * Used to make a player ignore another player.
+     *
+     * @param player The player that wants to ignore someone.
+     * @param target The unique id of the player to ignore.
+     * @param name   The name of the player to ignore.
+     * @return False if they were already ignoring them.
+     */
+    public synchronized boolean ignore(@NotNull Player player, @NotNull UUID target, @NotNull String name) {
+        Entry entry = this.intern(target);
+        Ignored current = this.ignoring.getOrDefault(player.getUniqueId(), EMPTY);
+
+        int position = Arrays.binarySearch(current.indexes(), entry.index);
+        if (position >= 0) return false;
+
+        int insert = -position - 1;
+        int length = current.indexes().length;
+        int[] indexes = new int[length + 1];
+        Entry[] entries = new Entry[length + 1];
+
+        System.arraycopy(current.indexes(), 0, indexes, 0, insert);
+        System.arraycopy(current.entries(), 0, entries, 0, insert);
+        indexes[insert] = entry.index;
+        entries[insert] = entry;
+        System.arraycopy(current.indexes(), insert, indexes, insert + 1, length - insert);
+        System.arraycopy(current.entries(), insert, entries, insert + 1, length - insert);
+
+        this.ignoring.put(player.getUniqueId(), new Ignored(indexes, entries));
+        entry.ignoredBy++;
+
+        this.dataManager.addIgnoredPlayer(player.getUniqueId(), target, name);
+        return true;
+    }
+
+    /**
+     * Used to stop a player ignoring another player.
+     *
+     * @param player The player that is ignoring someone.
+     * @param target The unique id of the player they are ignoring.
+     * @return False if they were not ignoring them.
+     */
+    public synchronized boolean unignore(@NotNull Player player, @NotNull UUID target) {
+        Entry entry = this.entries.get(target);
+        Ignored current = this.ignoring.getOrDefault(player.getUniqueId(), EMPTY);
+
+        int position = entry == null ? -1 : Arrays.binarySearch(current.indexes(), entry.index);
+        if (position < 0) return false;
+
+        int length = current.indexes().length;
+
+        if (length == 1) {
+            this.ignoring.remove(player.getUniqueId());
+        } else {
+            int[] indexes = new int[length - 1];
+            Entry[] entries = new Entry[length - 1];
+
+            System.arraycopy(current.indexes(), 0, indexes, 0, position);
+            System.arraycopy(current.entries(), 0, entries, 0, position);
+            System.arraycopy(current.indexes(), position + 1, indexes, position, length - position - 1);
+            System.arraycopy(current.entries(), position + 1, entries, position, length - position - 1);
+            this.ignoring.put(player.getUniqueId(), new Ignored(indexes, entries));
+        }
+
+        this.release(entry);
+
+        this.dataManager.removeIgnoredPlayer(player.getUniqueId(), target);
+        return true;
+    }
+
+    /**
+     * Used to get the names of the players a player is ignoring.
+     *
+     * @param player The player.
+     * @return The ignored players names by unique id.
+     */
+    public @NotNull Map<UUID, String> getIgnoredPlayers(@NotNull Player player) {
+        return this.dataManager.getIgnoredPlayers(player.getUniqueId());
+    }
+
+    /**
+     * Used to get the index of a sender if at least one
+     * online player is ignoring them.
+     * This should be called once per message, and the index
+     * passed to {@link #isIgnoring(Player, int)} for each recipient.
+     *
+     * @param sender The player sending a message.
+     * @return The senders index, or -1 if nobody is ignoring them.
+     */
+    public int getIgnoredIndex(@NotNull Player sender) {
+        Entry entry = this.entries.get(sender.getUniqueId());
+        if (entry == null || entry.ignoredBy <= 0) return -1;
+        return entry.index;
+    }
+
+    /**
+     * Used to check if a recipient is ignoring a sender.
+     *
+     * @param recipient   The player receiving the message.
+     * @param senderIndex The index from {@link #getIgnoredIndex(Player)}.
+     * @return True if the recipient is ignoring the sender.
+     */
+    public boolean isIgnoring(@NotNull Player recipient, int senderIndex) {
+        if (senderIndex < 0) return false;
+
+        Ignored ignored = this.ignoring.get(recipient.getUniqueId());
+        return ignored != null && Arrays.binarySearch(ignored.indexes(), senderIndex) >= 0;
+    }
+
+    /**
+     * Used to check if a recipient is ignoring a sender.
+     *
+     * @param recipient The player receiving the message.
+     * @param sender    The player sending the message.
+     * @return True if the recipient is ignoring the sender.
+     */
+    public boolean isIgnoring(@NotNull Player recipient, @NotNull Player sender) {
+        return this.isIgnoring(recipient, this.getIgnoredIndex(sender));
+    }
+
+    private @NotNull Entry intern(@NotNull UUID uuid) {
+        Entry entry = this.entries.get(uuid);
+        if (entry != null) return entry;
+
+        entry = new Entry(uuid, this.nextIndex++);
+        this.entries.put(uuid, entry);
+        return entry;
+    }
+
+    private void release(@NotNull Entry entry) {
+        if (--entry.ignoredBy <= 0) this.entries.remove(entry.uuid, entry);
+    }
+}
@@ -20,107 +20,48 @@
 
 package com.github.minemaniauk.minemaniachat.message;
 
-import com.github.minemaniauk.minemaniachat.DataBaseController;
+import com.github.minemaniauk.minemaniachat.ChatHandler;
 import com.github.minemaniauk.minemaniachat.MineManiaChat;
-import com.github.minemaniauk.minemaniachat.SpamFilterResults;
 import com.github.minemaniauk.minemaniachat.User;
+import com.github.minemaniauk.minemaniachat.filter.chain.FilterContext;
+import com.github.minemaniauk.minemaniachat.filter.chain.Rejection;
 import com.velocitypowered.api.proxy.Player;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 
-import java.time.Instant;
-
 
 public class MessageHandler {
 
     public void sendPlayerMessage(Player from, Player to, String message) {
-        DataBaseController dbController = MineManiaChat.getInstance().getDbController();
-
-        boolean muted = dbController != null
-                && dbController.isPlayerMuted(from);
+        ChatHandler chatHandler = MineManiaChat.getInstance().getChatHandler();
+        FilterContext context = FilterContext.privateMessage(from, to, message);
+        Rejection rejection = chatHandler.getPrivateMessageFilters().check(context);
 
-        if (muted) {
+        if (rejection != null) {
+            chatHandler.notifyRejected(context, rejection);
             return;
         }
 
-        if (!from.hasPermission("chat.bypass.disable")) {
-            if (!MineManiaChat.getInstance().getConfig().getBoolean("chat-enabled")) {
-                new User(from).sendMessage("&c&l> &7Chat is currently &cdisabled");
-                return;
-            }
-        }
+        String filteredMessage = context.getFilterResult().mask(message);
 
-        if (!from.hasPermission("chat.bypass.filter.banned-words")) {
-            if (MineManiaChat.getInstance().getChatHandler().containsBannedWords(message)) {
-                new User(from).sendMessage("&c&l> &cSomething went wrong.");
-                MineManiaChat.getInstance().getChatHandler().notifyStaff(from.getUsername(), "Sent a private message to " + to.getUsername() + " with Banned words!", "Banned word Alert", message);
-                return;
-            }
-        }
+        MineManiaChat.getInstance().getLogger().info(from.getUsername() + " -> " + to.getUsername() + ": " + message);
 
-        if (!from.hasPermission("chat.bypass.filter.url")) {
-            if (MineManiaChat.getInstance().getChatHandler().URL_PATTERN.matcher(message).find()) {
-                new User(from).sendMessage("&c&l> &cSomething went wrong.");
-                MineManiaChat.getInstance().getChatHandler().notifyStaff(from.getUsername(), "Sent a private message to " + to.getUsername() + " with a URL!", "URL Alert", message);
-                return;
-            }
-        }
-
-        if (!from.hasPermission("chat.bypass.private-message.disablement")) {
-            if (!MineManiaChat.getInstance().getDataManager().CanPlayerPm(from)) {
-                new User(from).sendMessage("&c&l> &cSomething went wrong.");
-                MineManiaChat.getInstance().getChatHandler().notifyStaff(from.getUsername(), "Sent a private message to " + to.getUsername() + " but has private messaging disabled", "PM disabled alert", message);
-                return;
+        for (Player player : MineManiaChat.getInstance().getProxyServer().getAllPlayers()) {
+            if (player.hasPermission("chat.private-message.spy") && MineManiaChat.getInstance().getDataManager().isSpying(player)) {
+                new User(player).sendMessage("&8&o" + from.getUsername() + " -> " + to.getUsername() + " : &o" + message);
             }
         }
 
-        if (MineManiaChat.getInstance().getConfig().getBoolean("spam-detection.enabled")) {
-            if (!from.hasPermission("chat.bypass.filter.spam")) {
-
-                if (MineManiaChat.getInstance().getChatHandler().playerCooldowns.containsKey(from) && MineManiaChat.getInstance().getConfig().getBoolean("spam-detection.message-density.enabled")) {
-                    if (Instant.now().isBefore(MineManiaChat.getInstance().getChatHandler().playerCooldowns.get(from))) {
-                        new User(from).sendMessage("&c&l> &cYou are sending messages too fast. Try again soon");
-                        MineManiaChat.getInstance().getChatHandler().notifyStaff(from.getUsername(), "Sent a private message to " + to.getUsername() + " but is spam cool downed!", "Spam cooldown Alert", message);
-                        return;
-                    } else {
-                        MineManiaChat.getInstance().getChatHandler().playerCooldowns.remove(from);
-                    }
-                }
-
-                var checkResult = MineManiaChat.getInstance().getChatHandler().CheckSpam(from);
-
-                if (checkResult != SpamFilterResults.NONE) {
-                    if (checkResult == SpamFilterResults.MESSAGE_DENSITY) {
-                        MineManiaChat.getInstance().getChatHandler().playerCooldowns.put(from, Instant.now().plusSeconds(MineManiaChat.getInstance().getConfig().getLong("spam-detection.message-density.violation-cooldown")));
-                    }
-
-                    new User(from).sendMessage("&c&l> &cYou are sending messages too fast");
-                    MineManiaChat.getInstance().getChatHandler().notifyStaff(from.getUsername(), "Sent a private message to " + to.getUsername() + " and Triggered the spam filter!", "Spam Filter Alert", message);
-                    return;
-                }
-
-                MineManiaChat.getInstance().getChatHandler().updatePlayerMessageTimes(to);
-            }
-
-            MineManiaChat.getInstance().getLogger().info(from.getUsername() + " -> " + to.getUsername() + ": " + message);
-
-            for (Player player : MineManiaChat.getInstance().getProxyServer().getAllPlayers()) {
-                if (player.hasPermission("chat.private-message.spy") && MineManiaChat.getInstance().getDataManager().isSpying(player)) {
-                    new User(player).sendMessage("&8&o" + from.getUsername() + " -> " + to.getUsername() + " : &o" + message);
-                }
-            }
-
-            from.sendMessage(
-                    LegacyComponentSerializer.legacyAmpersand().deserialize(
-                            "&f✉ &7&ome -> &f&o" + to.getUsername() + "&7&o: " + message
-                    )
-            );
+        from.sendMessage(
+                LegacyComponentSerializer.legacyAmpersand().deserialize(
+                        "&f✉ &7&ome -> &f&o" + to.getUsername() + "&7&o: " + filteredMessage
+                )
+        );
 
-            to.sendMessage(
-                    LegacyComponentSerializer.legacyAmpersand().deserialize(
-                            "&f✉ &f&o" + from.getUsername() + " &7-> &7&ome &7&o: " + message
-                    )
-            );
-        }
+        to.sendMessage(
+                LegacyComponentSerializer.legacyAmpersand().deserialize(
+                        "&f✉ &f&o" + from.getUsername() + " &7-> &7&ome &7&o: " + filteredMessage
+                )
+        );
     }
 
     public void sendConsoleMessage(Player to, String message) {
@@ -0,0 +1,92 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.message.commands;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.minemaniauk.minemaniachat.User;
+import com.velocitypowered.api.command.SimpleCommand;
+import com.velocitypowered.api.proxy.Player;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public class Ignore implements SimpleCommand {
+    @Override
+    public void execute(Invocation invocation) {
+        if (!(invocation.source() instanceof Player player)) {
+            invocation.source().sendPlainMessage("Must be player");
+            return;
+        }
+
+        String[] args = invocation.arguments();
+
+        if (args.length < 1) {
+            Map<UUID, String> ignored = MineManiaChat.getInstance().getIgnoreManager().getIgnoredPlayers(player);
+
+            if (ignored.isEmpty()) {
+                new User(player).sendMessage("&7&l> &7You are not ignoring anyone");
+                return;
+            }
+
+            new User(player).sendMessage("&7&l> &7Ignoring &f" + String.join("&7, &f", ignored.values()));
+            return;
+        }
+
+        Optional<Player> target = MineManiaChat.getInstance().getProxyServer().getPlayer(args[0]);
+
+        if (target.isEmpty()) {
+            new User(player).sendMessage("&c&l> &cCould not find player");
+            return;
+        }
+
+        if (target.get().equals(player)) {
+            new User(player).sendMessage("&c&l> &cYou can not ignore yourself");
+            return;
+        }
+
+        if (MineManiaChat.getInstance().getIgnoreManager().ignore(player, target.get().getUniqueId(), target.get().getUsername())) {
+            new User(player).sendMessage("&7&l> &7You are now ignoring &f" + target.get().getUsername());
+        } else {
+            new User(player).sendMessage("&c&l> &cYou are already ignoring " + target.get().getUsername());
+        }
+    }
+
+    @Override
+    public List<String> suggest(Invocation invocation) {
+        if (invocation.arguments().length > 1) return List.of();
+
+        String[] args = invocation.arguments();
+        String prefix = args.length > 0 ? args[0].toLowerCase() : "";
+
+        return MineManiaChat.getInstance().getProxyServer().getAllPlayers().stream()
+                .map(Player::getUsername)
+                .filter(name -> name.toLowerCase().startsWith(prefix))
+                .toList();
+    }
+
+    @Override
+    public boolean hasPermission(Invocation invocation) {
+        return invocation.source().hasPermission("chat.ignore");
+    }
+}
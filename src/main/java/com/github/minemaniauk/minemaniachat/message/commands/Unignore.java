@@ -0,0 +1,77 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.message.commands;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.minemaniauk.minemaniachat.User;
+import com.velocitypowered.api.command.SimpleCommand;
+import com.velocitypowered.api.proxy.Player;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class Unignore implements SimpleCommand {
+    @Override
+    public void execute(Invocation invocation) {
+        if (!(invocation.source() instanceof Player player)) {
+            invocation.source().sendPlainMessage("Must be player");
+            return;
+        }
+
+        String[] args = invocation.arguments();
+
+        if (args.length < 1) {
+            new User(player).sendMessage("&c&l> &cUsage: /unignore <player>");
+            return;
+        }
+
+        // Look through the saved names so offline players can be unignored.
+        for (Map.Entry<UUID, String> entry : MineManiaChat.getInstance().getIgnoreManager().getIgnoredPlayers(player).entrySet()) {
+            if (!entry.getValue().equalsIgnoreCase(args[0])) continue;
+
+            MineManiaChat.getInstance().getIgnoreManager().unignore(player, entry.getKey());
+            new User(player).sendMessage("&7&l> &7You are no longer ignoring &f" + entry.getValue());
+            return;
+        }
+
+        new User(player).sendMessage("&c&l> &cYou are not ignoring " + args[0]);
+    }
+
+    @Override
+    public List<String> suggest(Invocation invocation) {
+        if (invocation.arguments().length > 1) return List.of();
+        if (!(invocation.source() instanceof Player player)) return List.of();
+
+        String[] args = invocation.arguments();
+        String prefix = args.length > 0 ? args[0].toLowerCase() : "";
+
+        return MineManiaChat.getInstance().getIgnoreManager().getIgnoredPlayers(player).values().stream()
+                .filter(name -> name.toLowerCase().startsWith(prefix))
+                .toList();
+    }
+
+    @Override
+    public boolean hasPermission(Invocation invocation) {
+        return invocation.source().hasPermission("chat.ignore");
+    }
+}
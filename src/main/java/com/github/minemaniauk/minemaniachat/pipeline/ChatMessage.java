@@ -0,0 +1,173 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.pipeline;
+
+import com.github.minemaniauk.minemaniachat.broadcast.RenderedMessage;
+import com.github.minemaniauk.minemaniachat.channel.ChatChannel;
+import com.github.minemaniauk.minemaniachat.filter.FilterResult;
+import com.velocitypowered.api.proxy.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents a public chat message as it
+ * moves through the chat pipeline.
+ */
+public class ChatMessage {
+
+    private final @NotNull Player sender;
+    private final @NotNull String message;
+    private final long createdNanos;
+    private @Nullable ChatChannel channel;
+    private @NotNull FilterResult filterResult = FilterResult.CLEAN;
+    private @Nullable RenderedMessage rendered;
+    private @NotNull Map<Player, RenderedMessage> variants = Map.of();
+
+    /**
+     * Used to create a new chat message.
+     *
+     * @param sender  The player that sent the message.
+     * @param message The raw message.
+     */
+    public ChatMessage(@NotNull Player sender, @NotNull String message) {
+        this.sender = sender;
+        this.message = message;
+        this.createdNanos = System.nanoTime();
+    }
+
+    /**
+     * Used to get the player that sent the message.
+     *
+     * @return The sender.
+     */
+    public @NotNull Player getSender() {
+        return this.sender;
+    }
+
+    /**
+     * Used to get the message the player typed.
+     *
+     * @return The raw message.
+     */
+    public @NotNull String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * Used to get when the message entered the pipeline.
+     *
+     * @return The {@link System#nanoTime()} at creation.
+     */
+    public long getCreatedNanos() {
+        return this.createdNanos;
+    }
+
+    /**
+     * Used to get the channel the message is sent in.
+     * This is null until admission if the player did not pick a channel.
+     *
+     * @return The chat channel.
+     */
+    public @Nullable ChatChannel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Used to set the channel the message is sent in.
+     *
+     * @param channel The chat channel.
+     */
+    public void setChannel(@NotNull ChatChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Used to get what the banned word filter found in the message.
+     * This is clean until the moderate stage has run.
+     *
+     * @return The filter result.
+     */
+    public @NotNull FilterResult getFilterResult() {
+        return this.filterResult;
+    }
+
+    /**
+     * Used to set what the banned word filter found in the message.
+     *
+     * @param filterResult The filter result.
+     */
+    public void setFilterResult(@NotNull FilterResult filterResult) {
+        this.filterResult = filterResult;
+    }
+
+    /**
+     * Used to get the message with any masked words replaced.
+     *
+     * @return The message as other players should see it.
+     */
+    public @NotNull String getFilteredMessage() {
+        return this.filterResult.mask(this.message);
+    }
+
+    /**
+     * Used to get the rendered message.
+     * This is null until the format stage has run.
+     *
+     * @return The rendered message.
+     */
+    public @Nullable RenderedMessage getRendered() {
+        return this.rendered;
+    }
+
+    /**
+     * Used to set the rendered message.
+     *
+     * @param rendered The rendered message.
+     */
+    public void setRendered(@NotNull RenderedMessage rendered) {
+        this.rendered = rendered;
+    }
+
+    /**
+     * Used to get the players that receive a
+     * different render of the message.
+     *
+     * @return The variants by player.
+     */
+    public @NotNull Map<Player, RenderedMessage> getVariants() {
+        return this.variants;
+    }
+
+    /**
+     * Used to give a player a different render of the message.
+     *
+     * @param player  The player.
+     * @param variant The message they should receive.
+     */
+    public void addVariant(@NotNull Player player, @NotNull RenderedMessage variant) {
+        if (this.variants.isEmpty()) this.variants = new HashMap<>();
+        this.variants.put(player, variant);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.pipeline;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Used to run public chat messages through a fixed set of stages.
+ * admission -> moderation -> format -> fan-out -> sinks
+ * <p>
+ * Every stage after admission runs on its own bounded executor,
+ * so a slow database or webhook can no longer hold up the event thread.
+ * Messages from the same sender are chained so they are always
+ * processed and delivered in the order they were sent.
+ */
+public class ChatPipeline {
+
+    private static final CompletableFuture<Boolean> DROPPED = CompletableFuture.completedFuture(false);
+
+    private final @NotNull ChatStages stages;
+    private final @NotNull PipelineStage moderation;
+    private final @NotNull PipelineStage format;
+    private final @NotNull PipelineStage fanOut;
+    private final @NotNull PipelineStage sinks;
+    private final @NotNull LoadShedder loadShedder;
+
+    private final @NotNull Map<UUID, CompletableFuture<Void>> senderTails = new ConcurrentHashMap<>();
+
+    /**
+     * Used to create a new chat pipeline.
+     *
+     * @param stages        The work to run in each stage.
+     * @param configuration The configuration containing the pipeline section.
+     */
+    public ChatPipeline(@NotNull ChatStages stages, @NotNull Configuration configuration) {
+        this.stages = stages;
+        this.moderation = new PipelineStage("moderation",
+                configuration.getInteger("pipeline.moderation-threads", 4),
+                configuration.getInteger("pipeline.moderation-queue", 512));
+        this.format = new PipelineStage("format",
+                configuration.getInteger("pipeline.format-threads", 2),
+                configuration.getInteger("pipeline.format-queue", 512));
+        this.fanOut = new PipelineStage("fan-out",
+                configuration.getInteger("pipeline.fan-out-threads", 2),
+                configuration.getInteger("pipeline.fan-out-queue", 512));
+
+        // A single thread keeps console, webhook and discord output in order.
+        this.sinks = new PipelineStage("sinks", 1,
+                configuration.getInteger("pipeline.sink-queue", 1024));
+
+        this.loadShedder = new LoadShedder(this.getStages(), configuration);
+    }
+
+    /**
+     * Used to submit a message to the pipeline.
+     *
+     * @param message The message to process.
+     * @return A future that completes once the message has been delivered
+     *         to players, or null if it was not admitted.
+     */
+    public @Nullable CompletableFuture<Void> submit(@NotNull ChatMessage message) {
+        if (!this.stages.admit(message)) return null;
+
+        if (this.moderation.isFull()) {
+            this.stages.rejected(message, this.moderation);
+            return null;
+        }
+
+        // Chain onto the senders previous message to keep their order.
+        UUID senderUuid = message.getSender().getUniqueId();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = this.senderTails.put(senderUuid, done);
+
+        (previous == null ? CompletableFuture.<Void>completedFuture(null) : previous)
+                .thenCompose(ignored -> this.process(message))
+                .whenComplete((ignored, error) -> {
+                    this.senderTails.remove(senderUuid, done);
+                    this.loadShedder.record(System.nanoTime() - message.getCreatedNanos());
+
+                    if (error != null) {
+                        MineManiaChat.getInstance().getLogger().atError().setCause(error)
+                                .log("An error occurred while processing a chat message");
+                    }
+
+                    done.complete(null);
+                });
+
+        return done;
+    }
+
+    private @NotNull CompletableFuture<Void> process(@NotNull ChatMessage message) {
+        return this.enter(this.moderation, message, () -> this.stages.moderate(message))
+                .thenCompose(allowed -> !allowed ? DROPPED : this.enter(this.format, message, () -> {
+                    this.stages.format(message);
+                    return true;
+                }))
+                .thenCompose(formatted -> !formatted ? DROPPED : this.enterAsync(this.fanOut, message, () -> this.stages.fanOut(message)))
+                .thenAccept(delivered -> {
+                    if (!delivered) return;
+
+                    // Sinks are not waited on, players already have the message.
+                    this.enter(this.sinks, message, () -> {
+                        this.stages.sinks(message);
+                        return true;
+                    });
+                });
+    }
+
+    private @NotNull CompletableFuture<Boolean> enter(@NotNull PipelineStage stage,
+                                                      @NotNull ChatMessage message,
+                                                      @NotNull Supplier<Boolean> task) {
+
+        return this.handle(stage, message, stage.supply(task));
+    }
+
+    /**
+     * Used to run a stage that only starts its work on the stage thread,
+     * the stage is finished once the returned future completes.
+     */
+    private @NotNull CompletableFuture<Boolean> enterAsync(@NotNull PipelineStage stage,
+                                                           @NotNull ChatMessage message,
+                                                           @NotNull Supplier<CompletableFuture<Boolean>> task) {
+
+        return this.handle(stage, message, stage.supply(task).thenCompose(future -> future));
+    }
+
+    private @NotNull CompletableFuture<Boolean> handle(@NotNull PipelineStage stage,
+                                                       @NotNull ChatMessage message,
+                                                       @NotNull CompletableFuture<Boolean> future) {
+
+        return future.exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+
+            if (cause instanceof RejectedExecutionException) {
+                this.stages.rejected(message, stage);
+                return false;
+            }
+
+            MineManiaChat.getInstance().getLogger().atError().setCause(cause)
+                    .log("An error occurred in the " + stage.getName() + " stage of the chat pipeline");
+            return false;
+        });
+    }
+
+    /**
+     * Used to get the stages in the order they run.
+     *
+     * @return The pipeline stages.
+     */
+    public @NotNull List<PipelineStage> getStages() {
+        return List.of(this.moderation, this.format, this.fanOut, this.sinks);
+    }
+
+    /**
+     * Used to get the load shedder watching this pipeline.
+     *
+     * @return The load shedder.
+     */
+    public @NotNull LoadShedder getLoadShedder() {
+        return this.loadShedder;
+    }
+
+    /**
+     * Used to stop the pipeline.
+     * Messages that are already queued are still delivered.
+     */
+    public void shutdown() {
+        for (PipelineStage stage : this.getStages()) {
+            stage.shutdown();
+        }
+    }
+}
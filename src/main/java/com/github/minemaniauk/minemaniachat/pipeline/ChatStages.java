@@ -0,0 +1,84 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.pipeline;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Represents the work done in each stage of the chat pipeline.
+ * admission -> moderation -> format -> fan-out -> sinks
+ */
+public interface ChatStages {
+
+    /**
+     * Called on the event thread before the message is queued.
+     * This must be cheap.
+     *
+     * @param message The message.
+     * @return False to drop the message.
+     */
+    boolean admit(@NotNull ChatMessage message);
+
+    /**
+     * Called on the moderation stage.
+     * This is where blocking checks such as the database run.
+     *
+     * @param message The message.
+     * @return False to drop the message.
+     */
+    boolean moderate(@NotNull ChatMessage message);
+
+    /**
+     * Called on the format stage to render the message.
+     *
+     * @param message The message.
+     */
+    void format(@NotNull ChatMessage message);
+
+    /**
+     * Called on the fan-out stage to start delivering the message to players.
+     * The stage thread is released as soon as the delivery has started.
+     *
+     * @param message The message.
+     * @return A future that completes once the message was delivered,
+     *         with false if it was cancelled and should not reach the sinks.
+     */
+    @NotNull CompletableFuture<Boolean> fanOut(@NotNull ChatMessage message);
+
+    /**
+     * Called on the sink stage after the message was delivered.
+     * Used for the console, webhooks and Discord.
+     *
+     * @param message The message.
+     */
+    void sinks(@NotNull ChatMessage message);
+
+    /**
+     * Called when a stage rejected the message because its queue was full.
+     *
+     * @param message The message.
+     * @param stage   The stage that rejected the message.
+     */
+    void rejected(@NotNull ChatMessage message, @NotNull PipelineStage stage);
+}
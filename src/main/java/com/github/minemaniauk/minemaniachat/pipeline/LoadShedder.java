@@ -0,0 +1,227 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.pipeline;
+
+import com.github.minemaniauk.minemaniachat.MineManiaChat;
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Used to watch the chat pipeline and shed
+ * optional output when it falls behind.
+ * <li>Tier 1: the logging webhook is dropped.</li>
+ * <li>Tier 2: console logging is sampled.</li>
+ * <li>Tier 3: Discord forwarding is coalesced.</li>
+ * In-game delivery is never shed.
+ */
+public class LoadShedder {
+
+    private static final double SMOOTHING = 0.2;
+
+    private final @NotNull List<PipelineStage> stages;
+    private final boolean enabled;
+    private final long[] latencyThresholds;
+    private final int[] queueThresholds;
+    private final int consoleSampleRate;
+    private final long recoveryNanos;
+
+    private volatile @NotNull LoadTier tier = LoadTier.NORMAL;
+    private double averageLatencyNanos;
+    private long belowSinceNanos;
+
+    private final AtomicLong consoleCounter = new AtomicLong();
+    private final AtomicLong skippedWebhookLogs = new AtomicLong();
+    private final AtomicLong skippedConsoleLogs = new AtomicLong();
+    private final AtomicLong coalescedDiscordMessages = new AtomicLong();
+
+    /**
+     * Used to create a new load shedder.
+     *
+     * @param stages        The stages to watch the queues of.
+     * @param configuration The configuration containing the load-shedding section.
+     */
+    public LoadShedder(@NotNull List<PipelineStage> stages, @NotNull Configuration configuration) {
+        this.stages = stages;
+        this.enabled = configuration.getBoolean("load-shedding.enabled", true);
+
+        this.latencyThresholds = new long[]{
+                TimeUnit.MILLISECONDS.toNanos(configuration.getInteger("load-shedding.webhook-latency", 50)),
+                TimeUnit.MILLISECONDS.toNanos(configuration.getInteger("load-shedding.console-latency", 150)),
+                TimeUnit.MILLISECONDS.toNanos(configuration.getInteger("load-shedding.discord-latency", 400))
+        };
+        this.queueThresholds = new int[]{
+                configuration.getInteger("load-shedding.webhook-queue", 25),
+                configuration.getInteger("load-shedding.console-queue", 50),
+                configuration.getInteger("load-shedding.discord-queue", 75)
+        };
+
+        this.consoleSampleRate = Math.max(1, configuration.getInteger("load-shedding.console-sample-rate", 10));
+        this.recoveryNanos = TimeUnit.SECONDS.toNanos(configuration.getInteger("load-shedding.recovery-seconds", 10));
+    }
+
+    /**
+     * Used to record how long a message took to get through the pipeline.
+     * The tier is raised straight away when the pipeline is behind,
+     * and lowered one step at a time once it has recovered.
+     *
+     * @param latencyNanos The time taken in nanoseconds.
+     */
+    public synchronized void record(long latencyNanos) {
+        if (!this.enabled) return;
+
+        this.averageLatencyNanos = this.averageLatencyNanos == 0
+                ? latencyNanos
+                : this.averageLatencyNanos + SMOOTHING * (latencyNanos - this.averageLatencyNanos);
+
+        LoadTier measured = this.measure();
+        long now = System.nanoTime();
+
+        if (measured.ordinal() > this.tier.ordinal()) {
+            this.setTier(measured);
+            this.belowSinceNanos = 0;
+            return;
+        }
+
+        if (measured.ordinal() == this.tier.ordinal()) {
+            this.belowSinceNanos = 0;
+            return;
+        }
+
+        if (this.belowSinceNanos == 0) {
+            this.belowSinceNanos = now;
+            return;
+        }
+
+        if (now - this.belowSinceNanos >= this.recoveryNanos) {
+            this.setTier(LoadTier.values()[this.tier.ordinal() - 1]);
+            this.belowSinceNanos = now;
+        }
+    }
+
+    private @NotNull LoadTier measure() {
+        int queuePercent = this.getQueuePercent();
+        LoadTier measured = LoadTier.NORMAL;
+
+        for (int index = 0; index < this.latencyThresholds.length; index++) {
+            if (this.averageLatencyNanos >= this.latencyThresholds[index]
+                    || queuePercent >= this.queueThresholds[index]) {
+                measured = LoadTier.values()[index + 1];
+            }
+        }
+
+        return measured;
+    }
+
+    private void setTier(@NotNull LoadTier tier) {
+        LoadTier previous = this.tier;
+        this.tier = tier;
+
+        MineManiaChat.getInstance().getLogger().warn("Chat load tier changed from " + previous + " to " + tier + ". " + tier.getDescription());
+    }
+
+    /**
+     * Used to check if the logging webhook should be sent.
+     *
+     * @return True if the message should be sent to the webhook.
+     */
+    public boolean shouldSendWebhookLog() {
+        if (!this.tier.includes(LoadTier.NO_WEBHOOK_LOGGING)) return true;
+        this.skippedWebhookLogs.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Used to check if a message should be logged to the console.
+     * When sampling only one in every sample rate messages is logged.
+     *
+     * @return True if the message should be logged.
+     */
+    public boolean shouldLogToConsole() {
+        if (!this.tier.includes(LoadTier.SAMPLED_CONSOLE)) return true;
+        if (this.consoleCounter.incrementAndGet() % this.consoleSampleRate == 0) return true;
+        this.skippedConsoleLogs.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Used to check if Discord forwarding should be coalesced.
+     *
+     * @return True if the message should be added to the next summary.
+     */
+    public boolean shouldCoalesceDiscord() {
+        if (!this.tier.includes(LoadTier.COALESCED_DISCORD)) return false;
+        this.coalescedDiscordMessages.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Used to get the fullest stage queue as a percentage.
+     *
+     * @return The highest queue fill percentage.
+     */
+    public int getQueuePercent() {
+        int highest = 0;
+
+        for (PipelineStage stage : this.stages) {
+            highest = Math.max(highest, stage.getQueueDepth() * 100 / stage.getQueueCapacity());
+        }
+
+        return highest;
+    }
+
+    /**
+     * Used to get the current tier.
+     *
+     * @return The current tier.
+     */
+    public @NotNull LoadTier getTier() {
+        return this.tier;
+    }
+
+    /**
+     * Used to get the smoothed pipeline latency.
+     *
+     * @return The average latency in milliseconds.
+     */
+    public synchronized double getAverageLatencyMillis() {
+        return this.averageLatencyNanos / 1_000_000d;
+    }
+
+    public long getSkippedWebhookLogs() { return this.skippedWebhookLogs.get(); }
+
+    public long getSkippedConsoleLogs() { return this.skippedConsoleLogs.get(); }
+
+    public long getCoalescedDiscordMessages() { return this.coalescedDiscordMessages.get(); }
+
+    /**
+     * Used to check if load shedding is enabled.
+     *
+     * @return True if enabled.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+}
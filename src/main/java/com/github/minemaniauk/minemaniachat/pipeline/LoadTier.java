@@ -0,0 +1,61 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.pipeline;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents how much of the chat output is
+ * being shed to keep in-game delivery fast.
+ * Each tier includes the degradation of the tiers below it.
+ */
+public enum LoadTier {
+    NORMAL("All chat outputs are enabled"),
+    NO_WEBHOOK_LOGGING("The logging webhook is paused"),
+    SAMPLED_CONSOLE("The logging webhook is paused and console logging is sampled"),
+    COALESCED_DISCORD("The logging webhook is paused, console logging is sampled and Discord forwarding is coalesced");
+
+    private final @NotNull String description;
+
+    LoadTier(@NotNull String description) {
+        this.description = description;
+    }
+
+    /**
+     * Used to get what this tier turns off.
+     *
+     * @return The description of the tier.
+     */
+    public @NotNull String getDescription() {
+        return this.description;
+    }
+
+    /**
+     * Used to check if this tier is at least as degraded as another tier.
+     *
+     * @param tier The tier to compare to.
+     * @return True if this tier includes the other tier.
+     */
+    public boolean includes(@NotNull LoadTier tier) {
+        return this.ordinal() >= tier.ordinal();
+    }
+}
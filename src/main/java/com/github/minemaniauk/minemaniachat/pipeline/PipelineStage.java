@@ -0,0 +1,145 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.pipeline;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Represents one stage of the chat pipeline.
+ * Each stage owns a fixed size thread pool with a
+ * bounded queue, so a slow stage rejects new work
+ * instead of building an endless backlog.
+ */
+public class PipelineStage {
+
+    private final @NotNull String name;
+    private final int queueCapacity;
+    private final @NotNull ThreadPoolExecutor executor;
+
+    /**
+     * Used to create a new pipeline stage.
+     *
+     * @param name          The name of the stage.
+     * @param threads       The amount of threads to run the stage on.
+     * @param queueCapacity The maximum amount of waiting tasks.
+     */
+    public PipelineStage(@NotNull String name, int threads, int queueCapacity) {
+        this.name = name;
+        this.queueCapacity = Math.max(1, queueCapacity);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                Math.max(1, threads),
+                Math.max(1, threads),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "MineManiaChat-" + name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Used to run a task on this stage.
+     * If the queue is full the returned future
+     * completes with a {@link RejectedExecutionException}.
+     *
+     * @param task The task to run.
+     * @param <T>  The type of result.
+     * @return The future result of the task.
+     */
+    public <T> @NotNull CompletableFuture<T> supply(@NotNull Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, this.executor);
+        } catch (RejectedExecutionException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    /**
+     * Used to run a task on this stage.
+     *
+     * @param task The task to run.
+     * @return The future that completes when the task has run.
+     */
+    public @NotNull CompletableFuture<Void> run(@NotNull Runnable task) {
+        return this.supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Used to check if the stage can accept more work.
+     *
+     * @return True if the queue is full.
+     */
+    public boolean isFull() {
+        return this.executor.getQueue().remainingCapacity() == 0;
+    }
+
+    /**
+     * Used to get the name of the stage.
+     *
+     * @return The name of the stage.
+     */
+    public @NotNull String getName() {
+        return this.name;
+    }
+
+    /**
+     * Used to get the amount of tasks waiting in the queue.
+     *
+     * @return The current queue depth.
+     */
+    public int getQueueDepth() {
+        return this.executor.getQueue().size();
+    }
+
+    /**
+     * Used to get the maximum amount of waiting tasks.
+     *
+     * @return The queue capacity.
+     */
+    public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    /**
+     * Used to stop the stage.
+     * Tasks that are already queued will still run.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
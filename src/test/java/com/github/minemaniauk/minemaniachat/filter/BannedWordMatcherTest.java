@@ -0,0 +1,180 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BannedWordMatcherTest {
+
+    @Test
+    void matchesWholeWordsOnly() {
+        BannedWordMatcher matcher = BannedWordMatcher.compile(List.of("spam"));
+
+        assertTrue(matcher.matches(normalize("no spam please")));
+        assertTrue(matcher.matches(normalize("spam")));
+        assertFalse(matcher.matches(normalize("spammer")));
+        assertFalse(matcher.matches(normalize("antispam")));
+    }
+
+    @Test
+    void matchesFoldedForms() {
+        BannedWordMatcher matcher = BannedWordMatcher.compile(List.of("spam"));
+
+        assertTrue(matcher.matches(normalize("SP4M")));
+        assertTrue(matcher.matches(normalize("s.p.a.m")));
+        assertTrue(matcher.matches(normalize("s\u200Bpam")));
+        assertTrue(matcher.matches(normalize("sp\u0430m")));
+    }
+
+    @Test
+    void masksTheOriginalCharacters() {
+        BannedWordMatcher matcher = BannedWordMatcher.compile(actions("spam", FilterAction.MASK), List.of());
+
+        assertEquals("no **** please", mask(matcher, "no spam please"));
+        assertEquals("no **** please", mask(matcher, "no SP4M please"));
+        assertEquals("****? *******", mask(matcher, "spam? s.p.a.m"));
+    }
+
+    @Test
+    void masksAroundDroppedCharacters() {
+        BannedWordMatcher matcher = BannedWordMatcher.compile(actions("spam", FilterAction.MASK), List.of());
+
+        // The zero-width space is inside the span but is not a space, so it is masked too.
+        assertEquals("a ***** b", mask(matcher, "a s\u200Bpam b"));
+        assertEquals(" **** ok", mask(matcher, " sp\u0430m ok"));
+    }
+
+    @Test
+    void masksEveryPhraseAndLeavesSpaces() {
+        Map<String, FilterAction> phrases = new LinkedHashMap<>();
+        phrases.put("spam", FilterAction.MASK);
+        phrases.put("junk mail", FilterAction.MASK);
+        BannedWordMatcher matcher = BannedWordMatcher.compile(phrases, List.of());
+
+        assertEquals("**** and **** **** and ****", mask(matcher, "spam and junk mail and spam"));
+    }
+
+    @Test
+    void blockTakesPrecedenceOverMask() {
+        Map<String, FilterAction> phrases = new LinkedHashMap<>();
+        phrases.put("spam", FilterAction.MASK);
+        phrases.put("scam", FilterAction.BLOCK);
+        BannedWordMatcher matcher = BannedWordMatcher.compile(phrases, List.of());
+
+        FilterResult result = matcher.scan(MessageNormalizer.normalize("spam then scam"));
+        assertSame(FilterResult.BLOCKED, result);
+        assertFalse(result.hasMasks());
+    }
+
+    @Test
+    void mostSevereActionWinsForTheSamePhrase() {
+        Map<String, FilterAction> phrases = new LinkedHashMap<>();
+        phrases.put("spam", FilterAction.MASK);
+        phrases.put("SP4M", FilterAction.BLOCK);
+        phrases.put("5pam", FilterAction.ALERT);
+        BannedWordMatcher matcher = BannedWordMatcher.compile(phrases, List.of());
+
+        assertTrue(matcher.scan(MessageNormalizer.normalize("spam")).isBlocked());
+        assertTrue(matcher.matches(normalize("spam")));
+    }
+
+    @Test
+    void matchesIgnoresMaskAndAlert() {
+        Map<String, FilterAction> phrases = new LinkedHashMap<>();
+        phrases.put("spam", FilterAction.MASK);
+        phrases.put("watch", FilterAction.ALERT);
+        BannedWordMatcher matcher = BannedWordMatcher.compile(phrases, List.of());
+
+        assertFalse(matcher.matches(normalize("spam watch")));
+    }
+
+    @Test
+    void listsAlertsOnceAsWritten() {
+        Map<String, FilterAction> phrases = new LinkedHashMap<>();
+        phrases.put("Free Gems", FilterAction.ALERT);
+        phrases.put("spam", FilterAction.MASK);
+        BannedWordMatcher matcher = BannedWordMatcher.compile(phrases, List.of());
+
+        FilterResult result = matcher.scan(MessageNormalizer.normalize("free gems, FREE GEMS and spam"));
+        assertFalse(result.isBlocked());
+        assertTrue(result.isAlerted());
+        assertEquals(List.of("Free Gems"), result.getAlerts());
+        assertEquals("free gems, FREE GEMS and ****", result.mask("free gems, FREE GEMS and spam"));
+    }
+
+    @Test
+    void nestedPhrasesAreBothFound() {
+        Map<String, FilterAction> phrases = new LinkedHashMap<>();
+        phrases.put("spam", FilterAction.ALERT);
+        phrases.put("more spam", FilterAction.MASK);
+        BannedWordMatcher matcher = BannedWordMatcher.compile(phrases, List.of());
+
+        FilterResult result = matcher.scan(MessageNormalizer.normalize("want more spam"));
+        assertEquals(List.of("spam"), result.getAlerts());
+        assertEquals("want **** ****", result.mask("want more spam"));
+    }
+
+    @Test
+    void patternsBlock() {
+        BannedWordMatcher matcher = BannedWordMatcher.compile(List.of("scam"), List.of("fr+e+"));
+
+        assertTrue(matcher.matches(normalize("it is freeee")));
+        assertSame(FilterResult.BLOCKED, matcher.scan(MessageNormalizer.normalize("it is freeee")));
+        assertFalse(matcher.matches(normalize("it is freedom")));
+    }
+
+    @Test
+    void cleanMessages() {
+        BannedWordMatcher empty = BannedWordMatcher.compile(List.of());
+        assertSame(FilterResult.CLEAN, empty.scan(MessageNormalizer.normalize("anything")));
+        assertFalse(empty.matches(normalize("anything")));
+
+        BannedWordMatcher matcher = BannedWordMatcher.compile(actions("spam", FilterAction.MASK), List.of());
+        FilterResult result = matcher.scan(MessageNormalizer.normalize("hello there"));
+        assertSame(FilterResult.CLEAN, result);
+        assertEquals("hello there", result.mask("hello there"));
+    }
+
+    private static Map<String, FilterAction> actions(String phrase, FilterAction action) {
+        Map<String, FilterAction> phrases = new LinkedHashMap<>();
+        phrases.put(phrase, action);
+        return phrases;
+    }
+
+    private static String normalize(String message) {
+        return MessageNormalizer.normalize(message).toString();
+    }
+
+    private static String mask(BannedWordMatcher matcher, String message) {
+        return matcher.scan(MessageNormalizer.normalize(message)).mask(message);
+    }
+}
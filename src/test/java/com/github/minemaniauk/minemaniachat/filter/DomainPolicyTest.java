@@ -0,0 +1,129 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import com.github.smuddgge.squishyconfiguration.ConfigurationFactory;
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DomainPolicyTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void messagesWithoutLinksAreAllowed() throws IOException {
+        DomainPolicy policy = this.policy(List.of(), List.of());
+
+        assertEquals(DomainPolicy.Action.ALLOWED, policy.check("hello there"));
+    }
+
+    @Test
+    void unlistedDomains() throws IOException {
+        DomainPolicy policy = this.policy(List.of("minemania.co.uk"), List.of("scam.com"));
+
+        assertEquals(DomainPolicy.Action.UNLISTED, policy.check("see example.com"));
+        assertEquals(DomainPolicy.Action.UNLISTED, policy.check("see co.uk"));
+        assertEquals(DomainPolicy.Action.UNLISTED, policy.check("see notminemania.co.uk"));
+    }
+
+    @Test
+    void allowedDomainsCoverSubdomains() throws IOException {
+        DomainPolicy policy = this.policy(List.of("https://www.MineMania.co.uk"), List.of());
+
+        assertEquals(DomainPolicy.Action.ALLOWED, policy.check("minemania.co.uk"));
+        assertEquals(DomainPolicy.Action.ALLOWED, policy.check("go to https://store.minemania.co.uk/rank"));
+    }
+
+    @Test
+    void deepestEntryDecides() throws IOException {
+        DomainPolicy policy = this.policy(List.of("minemania.co.uk", "safe.evil.minemania.co.uk"), List.of("evil.minemania.co.uk"));
+
+        assertEquals(DomainPolicy.Action.ALLOWED, policy.check("store.minemania.co.uk"));
+        assertEquals(DomainPolicy.Action.DENIED, policy.check("evil.minemania.co.uk"));
+        assertEquals(DomainPolicy.Action.DENIED, policy.check("more.evil.minemania.co.uk"));
+        assertEquals(DomainPolicy.Action.ALLOWED, policy.check("safe.evil.minemania.co.uk"));
+    }
+
+    @Test
+    void blockedWinsOverAllowedForTheSameDomain() throws IOException {
+        DomainPolicy policy = this.policy(List.of("scam.com"), List.of("scam.com"));
+
+        assertEquals(DomainPolicy.Action.DENIED, policy.check("scam.com"));
+    }
+
+    @Test
+    void allowedPaths() throws IOException {
+        DomainPolicy policy = this.policy(List.of("discord.gg/minemania"), List.of());
+
+        assertEquals(DomainPolicy.Action.ALLOWED, policy.check("join discord.gg/minemania"));
+        assertEquals(DomainPolicy.Action.ALLOWED, policy.check("join https://discord.gg/MineMania?event=1"));
+        assertEquals(DomainPolicy.Action.UNLISTED, policy.check("join discord.gg/minemaniafake"));
+        assertEquals(DomainPolicy.Action.UNLISTED, policy.check("join discord.gg/other"));
+        assertEquals(DomainPolicy.Action.UNLISTED, policy.check("join discord.gg"));
+    }
+
+    @Test
+    void mostSevereLinkDecides() throws IOException {
+        DomainPolicy policy = this.policy(List.of("minemania.co.uk"), List.of("scam.com"));
+
+        assertEquals(DomainPolicy.Action.UNLISTED, policy.check("minemania.co.uk or example.com"));
+        assertEquals(DomainPolicy.Action.DENIED, policy.check("minemania.co.uk, example.com and scam.com"));
+    }
+
+    @Test
+    void obfuscatedLinksAreChecked() throws IOException {
+        DomainPolicy policy = this.policy(List.of(), List.of("cheapserver.net"));
+
+        assertEquals(DomainPolicy.Action.DENIED, policy.check("play . cheapserver . net"));
+        assertEquals(DomainPolicy.Action.DENIED, policy.check("cheapserver(dot)net"));
+    }
+
+    private DomainPolicy policy(List<String> allowed, List<String> blocked) throws IOException {
+        String yaml = "url-filter:\n"
+                + "  allowed: " + toYaml(allowed) + "\n"
+                + "  blocked: " + toYaml(blocked) + "\n";
+        Files.writeString(this.folder.resolve("config.yml"), yaml);
+
+        Configuration configuration = ConfigurationFactory.YAML.create(this.folder.toFile(), "config");
+        configuration.load();
+        return new DomainPolicy(configuration);
+    }
+
+    private static String toYaml(List<String> entries) {
+        StringBuilder list = new StringBuilder("[");
+        for (String entry : entries) {
+            if (list.length() > 1) list.append(", ");
+            list.append('"').append(entry).append('"');
+        }
+        return list.append(']').toString();
+    }
+}
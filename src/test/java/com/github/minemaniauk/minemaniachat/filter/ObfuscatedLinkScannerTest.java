@@ -0,0 +1,97 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObfuscatedLinkScannerTest {
+
+    @Test
+    void findsDotSubstitutes() {
+        assertEquals(List.of("cheapserver.net"), hosts("cheapserver(dot)net"));
+        assertEquals(List.of("cheapserver.net"), hosts("cheapserver [.] net"));
+        assertEquals(List.of("cheapserver.net"), hosts("cheapserver{ d0t }net"));
+        assertEquals(List.of("cheapserver.net"), hosts("cheapserver\uFF0Enet"));
+    }
+
+    @Test
+    void findsSpacedHosts() {
+        assertEquals(List.of("play.cheapserver.net"), hosts("play . cheapserver . net"));
+        assertEquals(List.of("play.cheapserver.net"), hosts("join play dot cheapserver dot net today"));
+    }
+
+    @Test
+    void foldsLookAlikeLetters() {
+        assertEquals(List.of("cheapserver.net"), hosts("\u0441heapserver(dot)n\u200Bet"));
+    }
+
+    @Test
+    void reportsWhereTheLinkIs() {
+        List<UrlScanner.Match> matches = new ArrayList<>();
+        assertTrue(ObfuscatedLinkScanner.scan("go to cheapserver(dot)net now", matches));
+
+        assertEquals(1, matches.size());
+        assertEquals(6, matches.get(0).start());
+        assertEquals("go to cheapserver(dot)net".length(), matches.get(0).end());
+    }
+
+    @Test
+    void leavesPlainDotsToTheUrlScanner() {
+        assertFalse(ObfuscatedLinkScanner.scan("cheapserver.net", null));
+    }
+
+    @Test
+    void ignoresNormalChat() {
+        assertFalse(ObfuscatedLinkScanner.scan("gg . gg", null));
+        assertFalse(ObfuscatedLinkScanner.scan("x . gg", null));
+        assertFalse(ObfuscatedLinkScanner.scan("the dot net framework", null));
+        assertFalse(ObfuscatedLinkScanner.scan("i like it. com on", null));
+        assertFalse(ObfuscatedLinkScanner.scan("update 1 . 20", null));
+        assertFalse(ObfuscatedLinkScanner.scan("a polka dot dress", null));
+        assertFalse(ObfuscatedLinkScanner.scan("hotdot net", null));
+    }
+
+    @Test
+    void commonWordDomainsNeedThreeLabels() {
+        assertFalse(ObfuscatedLinkScanner.scan("hello(dot)world", null));
+        assertFalse(ObfuscatedLinkScanner.scan("play . server . world", null));
+
+        assertTrue(ObfuscatedLinkScanner.scan("play(dot)server(dot)world", null));
+    }
+
+    private static List<String> hosts(String message) {
+        List<UrlScanner.Match> matches = new ArrayList<>();
+        ObfuscatedLinkScanner.scan(message, matches);
+
+        List<String> hosts = new ArrayList<>();
+        for (UrlScanner.Match match : matches) hosts.add(match.host());
+        return hosts;
+    }
+}
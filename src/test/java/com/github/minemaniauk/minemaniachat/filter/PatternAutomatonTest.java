@@ -0,0 +1,142 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatternAutomatonTest {
+
+    @Test
+    void literal() {
+        PatternAutomaton automaton = PatternAutomaton.compile(List.of("spam"));
+
+        assertTrue(matches(automaton, "spam"));
+        assertTrue(matches(automaton, "no spam here"));
+        assertFalse(matches(automaton, "spammer"));
+        assertFalse(matches(automaton, "no spa m here"));
+    }
+
+    @Test
+    void anyCharacter() {
+        PatternAutomaton automaton = PatternAutomaton.compile(List.of("b.t"));
+
+        assertTrue(matches(automaton, "bat"));
+        assertTrue(matches(automaton, "a b0t"));
+        assertFalse(matches(automaton, "b t"));
+        assertFalse(matches(automaton, "bt"));
+        assertFalse(matches(automaton, "boot"));
+    }
+
+    @Test
+    void anyRun() {
+        PatternAutomaton automaton = PatternAutomaton.compile(List.of("sp*m"));
+
+        assertTrue(matches(automaton, "spm"));
+        assertTrue(matches(automaton, "spam"));
+        assertTrue(matches(automaton, "spaaaammm"));
+        assertFalse(matches(automaton, "sp am"));
+        assertFalse(matches(automaton, "spams"));
+    }
+
+    @Test
+    void characterClass() {
+        PatternAutomaton automaton = PatternAutomaton.compile(List.of("c[ao]t"));
+
+        assertTrue(matches(automaton, "cat"));
+        assertTrue(matches(automaton, "the cot"));
+        assertFalse(matches(automaton, "cut"));
+        assertFalse(matches(automaton, "cats"));
+    }
+
+    @Test
+    void repeatAndOptional() {
+        PatternAutomaton repeat = PatternAutomaton.compile(List.of("fr+e+"));
+        assertTrue(matches(repeat, "free"));
+        assertTrue(matches(repeat, "frrreeeee"));
+        assertFalse(matches(repeat, "fe"));
+
+        PatternAutomaton optional = PatternAutomaton.compile(List.of("colou?r"));
+        assertTrue(matches(optional, "color"));
+        assertTrue(matches(optional, "colour"));
+        assertFalse(matches(optional, "colouur"));
+    }
+
+    @Test
+    void patternsAreNormalised() {
+        PatternAutomaton automaton = PatternAutomaton.compile(List.of("FR3E"));
+
+        assertTrue(matches(automaton, "free"));
+        assertTrue(matches(automaton, "F.R.E.E"));
+    }
+
+    @Test
+    void severalPatterns() {
+        PatternAutomaton automaton = PatternAutomaton.compile(List.of("c[ao]t", "d.g"));
+
+        assertTrue(matches(automaton, "a dog"));
+        assertTrue(matches(automaton, "a cat"));
+        assertFalse(matches(automaton, "a cow"));
+    }
+
+    @Test
+    void blankPatternsAreSkipped() {
+        PatternAutomaton automaton = PatternAutomaton.compile(List.of("", "  "));
+
+        assertFalse(matches(automaton, "anything"));
+        assertFalse(matches(automaton, ""));
+    }
+
+    @Test
+    void invalidPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> PatternAutomaton.compile(List.of("+spam")));
+        assertThrows(IllegalArgumentException.class, () -> PatternAutomaton.compile(List.of("spa++m")));
+        assertThrows(IllegalArgumentException.class, () -> PatternAutomaton.compile(List.of("c[ao")));
+    }
+
+    @Test
+    void tooComplex() {
+        // Remembering which of the last sixteen characters was an "a" needs 2^16 states.
+        assertThrows(IllegalArgumentException.class, () -> PatternAutomaton.compile(List.of("*a" + ".".repeat(15))));
+    }
+
+    private static boolean matches(PatternAutomaton automaton, String message) {
+        CharSequence normalized = MessageNormalizer.normalize(message);
+        int state = automaton.getStart();
+
+        for (int index = 0; index < normalized.length(); index++) {
+            int symbol = BannedWordMatcher.symbol(normalized.charAt(index));
+            if (symbol == BannedWordMatcher.SKIP) continue;
+
+            state = automaton.next(state, symbol);
+            if (automaton.isAccepting(state)) return true;
+        }
+
+        return automaton.isAccepting(automaton.next(state, BannedWordMatcher.SPACE));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UrlScannerTest {
+
+    @Test
+    void findsPlainHosts() {
+        assertTrue(UrlScanner.contains("join play.hypixel.net now"));
+        assertTrue(UrlScanner.contains("example.com"));
+        assertTrue(UrlScanner.contains("EXAMPLE.COM"));
+        assertTrue(UrlScanner.contains("try freegems.party"));
+    }
+
+    @Test
+    void findsSchemesAndPaths() {
+        List<UrlScanner.Match> matches = UrlScanner.find("see https://example.com/page?x=1 ok");
+
+        assertEquals(1, matches.size());
+        UrlScanner.Match match = matches.get(0);
+        assertEquals("example.com", match.host());
+        assertEquals(4, match.start());
+        assertEquals("https://example.com/page?x=1".length() + 4, match.end());
+        assertEquals("https://example.com".length() + 4, match.hostEnd());
+    }
+
+    @Test
+    void findsEveryLink() {
+        List<UrlScanner.Match> matches = UrlScanner.find("a.com, then B.Org.");
+
+        assertEquals(2, matches.size());
+        assertEquals("a.com", matches.get(0).host());
+        assertEquals("b.org", matches.get(1).host());
+        assertEquals(0, matches.get(0).start());
+        assertEquals(5, matches.get(0).end());
+    }
+
+    @Test
+    void ignoresNormalChat() {
+        assertFalse(UrlScanner.contains("hello.how are you"));
+        assertFalse(UrlScanner.contains("i like it...ok"));
+        assertFalse(UrlScanner.contains("version 1.20.4"));
+        assertFalse(UrlScanner.contains("end of a sentence. Next one"));
+        assertFalse(UrlScanner.contains(".com"));
+        assertFalse(UrlScanner.contains("a..com"));
+        assertFalse(UrlScanner.contains("file.notatld"));
+    }
+
+    @Test
+    void commonWordDomainsNeedMore() {
+        assertFalse(UrlScanner.contains("i.am here"));
+        assertFalse(UrlScanner.contains("hello.world"));
+
+        assertTrue(UrlScanner.contains("i.am/page"));
+        assertTrue(UrlScanner.contains("www.hello.world"));
+        assertTrue(UrlScanner.contains("https://hello.world"));
+        assertTrue(UrlScanner.contains("my.site.world"));
+    }
+
+    @Test
+    void findsObfuscatedLinks() {
+        assertTrue(UrlScanner.contains("play . cheapserver . net"));
+
+        List<UrlScanner.Match> matches = UrlScanner.find("join cheapserver(dot)net");
+        assertEquals(1, matches.size());
+        assertEquals("cheapserver.net", matches.get(0).host());
+    }
+
+    @Test
+    void dropsNestedMatches() {
+        List<UrlScanner.Match> matches = UrlScanner.find("play.cheap . net");
+
+        assertEquals(1, matches.size());
+        assertEquals("play.cheap.net", matches.get(0).host());
+    }
+}
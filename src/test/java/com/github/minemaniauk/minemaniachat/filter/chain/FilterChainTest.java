@@ -0,0 +1,189 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+
+package com.github.minemaniauk.minemaniachat.filter.chain;
+
+import com.github.minemaniauk.minemaniachat.filter.DomainPolicy;
+import com.github.minemaniauk.minemaniachat.filter.FilterResult;
+import com.github.minemaniauk.minemaniachat.filter.MessageNormalizer;
+import com.github.minemaniauk.minemaniachat.filter.VerdictCache;
+import com.github.smuddgge.squishyconfiguration.ConfigurationFactory;
+import com.github.smuddgge.squishyconfiguration.interfaces.Configuration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilterChainTest {
+
+    private static final int INTERVAL = 20;
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void stopsAtTheFirstRejection() throws IOException {
+        TestFilter first = new TestFilter("first", 0, 1, false);
+        TestFilter second = new TestFilter("second", 0, 1, false);
+        FilterChain chain = new FilterChain("test", this.configuration(false), first, second);
+
+        Rejection rejection = chain.check(context());
+
+        assertEquals("first", rejection.filter());
+        assertEquals(1, first.calls);
+        assertEquals(0, second.calls);
+    }
+
+    @Test
+    void passesWhenEveryFilterPasses() throws IOException {
+        TestFilter first = new TestFilter("first", 0, 0, false);
+        TestFilter second = new TestFilter("second", 0, 0, false);
+        FilterChain chain = new FilterChain("test", this.configuration(false), first, second);
+
+        assertNull(chain.check(context()));
+        assertEquals(1, first.calls);
+        assertEquals(1, second.calls);
+        assertEquals(1, chain.getChecked());
+    }
+
+    @Test
+    void cheapRejectingFiltersMoveFirst() throws IOException {
+        FilterChain chain = new FilterChain("test", this.configuration(true),
+                new TestFilter("slow", 50_000, 0, false),
+                new TestFilter("cheap", 0, 2, false)
+        );
+
+        assertEquals(List.of("slow", "cheap"), order(chain));
+        this.run(chain, INTERVAL);
+        assertEquals(List.of("cheap", "slow"), order(chain));
+    }
+
+    @Test
+    void filtersWithSideEffectsStayInPlace() throws IOException {
+        FilterChain chain = new FilterChain("test", this.configuration(true),
+                new TestFilter("slow", 50_000, 0, false),
+                new TestFilter("cheap", 0, 2, false),
+                new TestFilter("fixed", 0, 0, true),
+                new TestFilter("slow after", 50_000, 0, false),
+                new TestFilter("cheap after", 0, 2, false)
+        );
+
+        this.run(chain, INTERVAL * 4);
+
+        assertEquals(List.of("cheap", "slow", "fixed", "cheap after", "slow after"), order(chain));
+        assertTrue(chain.getStats().get(2).fixed());
+    }
+
+    @Test
+    void fixedOrderWhenNotAdaptive() throws IOException {
+        FilterChain chain = new FilterChain("test", this.configuration(false),
+                new TestFilter("slow", 50_000, 0, false),
+                new TestFilter("cheap", 0, 2, false)
+        );
+
+        this.run(chain, INTERVAL * 2);
+        assertEquals(List.of("slow", "cheap"), order(chain));
+    }
+
+    private void run(FilterChain chain, int messages) {
+        for (int index = 0; index < messages; index++) chain.check(context());
+    }
+
+    private Configuration configuration(boolean adaptive) throws IOException {
+        Files.writeString(this.folder.resolve("config.yml"), "filter-chain:\n"
+                + "  adaptive: " + adaptive + "\n"
+                + "  reorder-interval: " + INTERVAL + "\n");
+
+        Configuration configuration = ConfigurationFactory.YAML.create(this.folder.toFile(), "config");
+        configuration.load();
+        return configuration;
+    }
+
+    private static FilterContext context() {
+        String message = "hello";
+        VerdictCache.Verdict verdict = new VerdictCache.Verdict(
+                FilterResult.CLEAN,
+                DomainPolicy.Action.ALLOWED,
+                MessageNormalizer.normalize(message).getContentStats()
+        );
+
+        return FilterContext.discord("tester", UUID.randomUUID(), message, verdict, permission -> false);
+    }
+
+    private static List<String> order(FilterChain chain) {
+        List<String> names = new ArrayList<>();
+        for (FilterChain.Stats stats : chain.getStats()) names.add(stats.filter());
+        return names;
+    }
+
+    /**
+     * A filter that takes a set time and
+     * rejects every so many messages it checks.
+     */
+    private static final class TestFilter implements ChatFilter {
+
+        private final @NotNull String name;
+        private final long nanos;
+        private final int rejectEvery;
+        private final boolean sideEffects;
+        private int calls;
+
+        private TestFilter(@NotNull String name, long nanos, int rejectEvery, boolean sideEffects) {
+            this.name = name;
+            this.nanos = nanos;
+            this.rejectEvery = rejectEvery;
+            this.sideEffects = sideEffects;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return this.name;
+        }
+
+        @Override
+        public @Nullable Rejection check(@NotNull FilterContext context) {
+            this.calls++;
+
+            long end = System.nanoTime() + this.nanos;
+            while (System.nanoTime() < end) Thread.onSpinWait();
+
+            if (this.rejectEvery > 0 && this.calls % this.rejectEvery == 0) return context.reject(this, null);
+            return null;
+        }
+
+        @Override
+        public boolean hasSideEffects() {
+            return this.sideEffects;
+        }
+    }
+}
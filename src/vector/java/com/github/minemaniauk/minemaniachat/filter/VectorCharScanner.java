@@ -0,0 +1,185 @@
+/*
+ * MineManiaChat
+ * Used for interacting with the database and message broker.
+ *
+ * Copyright (C) 2023  MineManiaUK Staff
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.minemaniauk.minemaniachat.filter;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Used to normalise characters with the vector API.
+ * <p>
+ * Most chat is plain letters and spaces, which normalise by lower
+ * casing and nothing else. Each block of characters is classified
+ * at once, and if every character in it is a letter or a space the
+ * block is lower cased and copied in one go. Any other block, for
+ * example one with digits, accents or symbols, is handled a
+ * character at a time with the lookup table like the scalar scanner.
+ * <p>
+ * The content stats of a plain block come from the same masks. Capitals
+ * are counted from the upper case mask, and repeated characters are
+ * found by comparing the block with itself shifted along by one.
+ * <p>
+ * Only loaded by {@link CharScanner#create()} when the
+ * {@code jdk.incubator.vector} module is available.
+ */
+final class VectorCharScanner implements CharScanner {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    VectorCharScanner() {
+        if (LANES < 8) throw new UnsupportedOperationException("Vectors of " + LANES + " chars are too small to help");
+    }
+
+    @Override
+    public int normalize(char[] source, int length, char[] table, byte[] classes, char[] target, int[] offsets, int[] stats) {
+        int written = 0;
+        int index = 0;
+        int bound = SPECIES.loopBound(length);
+
+        int letters = 0;
+        int uppercase = 0;
+        int marks = 0;
+        int run = 0;
+        int longestRun = 0;
+        int markRun = 0;
+        int longestMarkRun = 0;
+        char last = 0;
+
+        ShortVector previous = ShortVector.zero(SPECIES);
+
+        for (; index < bound; index += LANES) {
+            ShortVector block = ShortVector.fromCharArray(SPECIES, source, index);
+
+            // Chars are unsigned, so a single unsigned compare checks a range.
+            VectorMask<Short> lower = block.sub((short) 'a').compare(VectorOperators.UNSIGNED_LE, (short) ('z' - 'a'));
+            VectorMask<Short> upper = block.sub((short) 'A').compare(VectorOperators.UNSIGNED_LE, (short) ('Z' - 'A'));
+            VectorMask<Short> space = block.compare(VectorOperators.EQ, (short) ' ');
+
+            if (lower.or(upper).or(space).allTrue()) {
+                block.add((short) ('a' - 'A'), upper).intoCharArray(target, written);
+
+                for (int lane = 0; lane < LANES; lane++) {
+                    offsets[written + lane] = index + lane;
+                }
+
+                written += LANES;
+                letters += LANES - space.trueCount();
+                uppercase += upper.trueCount();
+                markRun = 0;
+
+                // A lane is set when its char repeats the one before it.
+                long repeats = block.compare(VectorOperators.EQ, previous.slice(LANES - 1, block)).andNot(space).toLong();
+                int continued = Long.numberOfTrailingZeros(~repeats);
+
+                if (continued >= LANES) {
+                    run += LANES;
+                } else {
+                    run += continued;
+                    if (run > longestRun) longestRun = run;
+
+                    // Each run of set lanes is one less than the run of chars.
+                    int longest = 0;
+                    for (long bits = repeats; bits != 0; bits &= bits >>> 1) longest++;
+                    if (longest + 1 > longestRun) longestRun = longest + 1;
+
+                    int ending = Long.numberOfLeadingZeros(~(repeats << (Long.SIZE - LANES)));
+                    run = space.lastTrue() == LANES - 1 ? 0 : ending + 1;
+                }
+
+                if (run > longestRun) longestRun = run;
+                last = source[index + LANES - 1];
+                previous = block;
+                continue;
+            }
+
+            for (int position = index; position < index + LANES; position++) {
+                char character = source[position];
+                byte type = classes[character];
+
+                if ((type & ContentStats.LETTER) != 0) letters++;
+                if ((type & ContentStats.UPPER) != 0) uppercase++;
+
+                if ((type & ContentStats.MARK) != 0) {
+                    marks++;
+                    if (++markRun > longestMarkRun) longestMarkRun = markRun;
+                } else {
+                    markRun = 0;
+                }
+
+                if ((type & ContentStats.SPACE) != 0) run = 0;
+                else run = character == last ? run + 1 : 1;
+                if (run > longestRun) longestRun = run;
+                last = character;
+
+                char normalized = table[character];
+                if (normalized == 0) continue;
+
+                target[written] = normalized;
+                offsets[written++] = position;
+            }
+
+            previous = block;
+        }
+
+        for (; index < length; index++) {
+            char character = source[index];
+            byte type = classes[character];
+
+            if ((type & ContentStats.LETTER) != 0) letters++;
+            if ((type & ContentStats.UPPER) != 0) uppercase++;
+
+            if ((type & ContentStats.MARK) != 0) {
+                marks++;
+                if (++markRun > longestMarkRun) longestMarkRun = markRun;
+            } else {
+                markRun = 0;
+            }
+
+            if ((type & ContentStats.SPACE) != 0) run = 0;
+            else run = character == last ? run + 1 : 1;
+            if (run > longestRun) longestRun = run;
+            last = character;
+
+            char normalized = table[character];
+            if (normalized == 0) continue;
+
+            target[written] = normalized;
+            offsets[written++] = index;
+        }
+
+        stats[ContentStats.LETTERS] = letters;
+        stats[ContentStats.UPPERCASE] = uppercase;
+        stats[ContentStats.LONGEST_RUN] = longestRun;
+        stats[ContentStats.COMBINING_MARKS] = marks;
+        stats[ContentStats.LONGEST_MARK_RUN] = longestMarkRun;
+        return written;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "vector (" + LANES + " chars)";
+    }
+}